@@ -0,0 +1,42 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.CoursePlatformApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server against a private H2 database,
+ * using the test profile so the seed data loader stays out of the way.
+ */
+final class BenchmarkContext {
+    
+    private BenchmarkContext() {
+    }
+    
+    /**
+     * @param properties extra {@code name=value} overrides for this run
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        // Passed as arguments rather than default properties so they win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--search.cache.enabled=false",
+                "--catalog.render.prerender=false",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(CoursePlatformApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,18 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.dto.request.RegisterRequest;
+import com.courseplatform.service.AuthService;
+import org.springframework.context.ApplicationContext;
+
+final class BenchmarkUsers {
+    
+    private BenchmarkUsers() {
+    }
+    
+    static void register(ApplicationContext context, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("benchmark-password");
+        context.getBean(AuthService.class).register(request);
+    }
+}
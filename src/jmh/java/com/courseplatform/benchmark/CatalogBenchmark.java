@@ -0,0 +1,76 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.catalog.CourseDetailCache.EncodedDetail;
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.CourseListResponse;
+import com.courseplatform.service.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+    
+    @Param({"20", "200"})
+    public int courses;
+    
+    @Param({"5"})
+    public int topicsPerCourse;
+    
+    @Param({"8"})
+    public int subtopicsPerTopic;
+    
+    @Param({"snapshot", "database"})
+    public String source;
+    
+    private ConfigurableApplicationContext context;
+    private CourseService courseService;
+    private String courseId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("catalog.source=" + source);
+        List<String> ids = new SyntheticCatalog(courses, topicsPerCourse, subtopicsPerTopic).load(context);
+        courseId = ids.get(ids.size() / 2);
+        courseService = context.getBean(CourseService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public CourseListResponse getAllCourses() {
+        return courseService.getAllCourses(null, null, null, null);
+    }
+    
+    @Benchmark
+    public CourseDetailResponse getCourseById() {
+        return courseService.getCourseById(courseId);
+    }
+    
+    @Benchmark
+    public EncodedDetail getEncodedCourseById() {
+        return courseService.getEncodedCourseById(courseId, null, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.dto.response.EnrollmentProgressResponse;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.service.EnrollmentService;
+import com.courseplatform.service.ProgressService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProgressBenchmark {
+    
+    private static final String EMAIL = "bench@example.com";
+    
+    @Param({"20"})
+    public int courses;
+    
+    @Param({"5", "20"})
+    public int topicsPerCourse;
+    
+    @Param({"8"})
+    public int subtopicsPerTopic;
+    
+    private ConfigurableApplicationContext context;
+    private ProgressService progressService;
+    private Long enrollmentId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        List<String> ids = new SyntheticCatalog(courses, topicsPerCourse, subtopicsPerTopic).load(context);
+        String courseId = ids.get(0);
+        
+        BenchmarkUsers.register(context, EMAIL);
+        enrollmentId = context.getBean(EnrollmentService.class).enrollUser(EMAIL, courseId).getEnrollmentId();
+        progressService = context.getBean(ProgressService.class);
+        
+        // Complete every other subtopic so both branches of the progress view are exercised
+        List<Subtopic> subtopics = context.getBean(SubtopicRepository.class)
+                .findByTopicCourseIdInOrderByIdAsc(List.of(courseId));
+        for (int i = 0; i < subtopics.size(); i += 2) {
+            progressService.markSubtopicComplete(EMAIL, subtopics.get(i).getSubtopicId());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public EnrollmentProgressResponse getEnrollmentProgress() {
+        return progressService.getEnrollmentProgress(enrollmentId, EMAIL, false);
+    }
+    
+    @Benchmark
+    public EnrollmentProgressResponse getEnrollmentProgressWithItems() {
+        return progressService.getEnrollmentProgress(enrollmentId, EMAIL, true);
+    }
+}
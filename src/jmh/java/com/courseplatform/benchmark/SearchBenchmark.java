@@ -0,0 +1,68 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.dto.response.SearchResponse;
+import com.courseplatform.service.SearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    
+    @Param({"20", "200"})
+    public int courses;
+    
+    @Param({"5"})
+    public int topicsPerCourse;
+    
+    @Param({"8"})
+    public int subtopicsPerTopic;
+    
+    private ConfigurableApplicationContext context;
+    private SearchService searchService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        new SyntheticCatalog(courses, topicsPerCourse, subtopicsPerTopic).load(context);
+        searchService = context.getBean(SearchService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public SearchResponse shortQuery() {
+        return searchService.search("vel", null, null, false);
+    }
+    
+    @Benchmark
+    public SearchResponse longQuery() {
+        return searchService.search("velocity acceleration momentum energy", null, null, false);
+    }
+    
+    @Benchmark
+    public SearchResponse noMatchQuery() {
+        return searchService.search("quasicrystal", null, null, false);
+    }
+}
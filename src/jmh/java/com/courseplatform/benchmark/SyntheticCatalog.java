@@ -0,0 +1,101 @@
+package com.courseplatform.benchmark;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a deterministic catalog of the requested shape. Titles and content
+ * are drawn from a fixed vocabulary with a fixed seed, so runs are comparable.
+ */
+final class SyntheticCatalog {
+    
+    static final String[] VOCABULARY = {
+            "velocity", "acceleration", "momentum", "energy", "force", "mass", "friction",
+            "gravity", "orbit", "wave", "frequency", "amplitude", "charge", "current",
+            "voltage", "resistance", "field", "magnet", "photon", "electron", "nucleus",
+            "reaction", "equilibrium", "entropy", "pressure", "volume", "temperature",
+            "molecule", "bond", "acid", "base", "solution", "derivative", "integral",
+            "vector", "matrix", "function", "limit", "series", "probability"
+    };
+    
+    private final int courses;
+    private final int topicsPerCourse;
+    private final int subtopicsPerTopic;
+    private final Random random = new Random(42);
+    
+    SyntheticCatalog(int courses, int topicsPerCourse, int subtopicsPerTopic) {
+        this.courses = courses;
+        this.topicsPerCourse = topicsPerCourse;
+        this.subtopicsPerTopic = subtopicsPerTopic;
+    }
+    
+    /**
+     * Persists the catalog and returns the generated course ids in creation order.
+     */
+    List<String> load(ApplicationContext context) {
+        CourseRepository courseRepository = context.getBean(CourseRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        
+        List<String> ids = new ArrayList<>(courses);
+        for (int c = 0; c < courses; c++) {
+            Course course = buildCourse(c);
+            tx.executeWithoutResult(status -> courseRepository.save(course));
+            ids.add(course.getId());
+        }
+        return ids;
+    }
+    
+    private Course buildCourse(int c) {
+        Course course = Course.builder()
+                .id("course-" + c)
+                .title(words(3) + " " + c)
+                .description(words(25))
+                .build();
+        
+        for (int t = 0; t < topicsPerCourse; t++) {
+            Topic topic = Topic.builder()
+                    .topicId("course-" + c + "-topic-" + t)
+                    .title(words(2))
+                    .build();
+            course.addTopic(topic);
+            
+            for (int s = 0; s < subtopicsPerTopic; s++) {
+                topic.addSubtopic(Subtopic.builder()
+                        .subtopicId("course-" + c + "-topic-" + t + "-sub-" + s)
+                        .title(words(3))
+                        .content(paragraphs(3))
+                        .build());
+            }
+        }
+        return course;
+    }
+    
+    private String words(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+        return sb.toString();
+    }
+    
+    private String paragraphs(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("## ").append(words(2)).append("\n\n")
+                    .append(words(60)).append(".\n\n");
+        }
+        return sb.toString();
+    }
+}
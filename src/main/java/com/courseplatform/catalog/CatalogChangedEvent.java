@@ -0,0 +1,16 @@
+package com.courseplatform.catalog;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Published once per committed transaction that created, updated or removed
+ * course, topic or subtopic rows. Carries the ids of the affected courses.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CatalogChangedEvent {
+    private final Set<String> courseIds;
+}
@@ -0,0 +1,75 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JPA listener on the course content entities. Collects the affected course ids
+ * for the current transaction and publishes a single {@link CatalogChangedEvent}
+ * after it commits, so a seed load of hundreds of rows triggers one refresh.
+ */
+@RequiredArgsConstructor
+public class CatalogEntityListener {
+    
+    private static final Object PENDING_CHANGES_KEY = CatalogEntityListener.class.getName() + ".pending";
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCatalogWrite(Object entity) {
+        String courseId = courseIdOf(entity);
+        if (courseId == null) {
+            return;
+        }
+        
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(Set.of(courseId)));
+            return;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            Set<String> courseIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, courseIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        eventPublisher.publishEvent(new CatalogChangedEvent(Set.copyOf(courseIds)));
+                    }
+                }
+            });
+            pending = courseIds;
+        }
+        pending.add(courseId);
+    }
+    
+    private String courseIdOf(Object entity) {
+        if (entity instanceof Course course) {
+            return course.getId();
+        }
+        if (entity instanceof Topic topic && topic.getCourse() != null) {
+            return topic.getCourse().getId();
+        }
+        if (entity instanceof Subtopic subtopic && subtopic.getTopic() != null
+                && subtopic.getTopic().getCourse() != null) {
+            return subtopic.getTopic().getCourse().getId();
+        }
+        return null;
+    }
+}
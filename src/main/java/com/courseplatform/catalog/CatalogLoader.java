@@ -0,0 +1,88 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.dto.response.TopicDTO;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads courses as detail DTOs with one query per table, instead of walking the
+ * lazy topic and subtopic collections course by course. Callers are expected to
+ * run inside a read-only transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogLoader {
+    
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final SubtopicRepository subtopicRepository;
+    
+    public List<CourseDetailResponse> loadAll() {
+        return toDetails(
+                courseRepository.findAll(Sort.by("id")),
+                topicRepository.findAll(Sort.by("id")),
+                subtopicRepository.findAll(Sort.by("id")));
+    }
+    
+    /**
+     * Loads the given courses in no particular order; ids that no longer exist
+     * are skipped.
+     */
+    public List<CourseDetailResponse> load(Collection<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        return toDetails(
+                courseRepository.findAllById(courseIds),
+                topicRepository.findByCourseIdInOrderByIdAsc(courseIds),
+                subtopicRepository.findByTopicCourseIdInOrderByIdAsc(courseIds));
+    }
+    
+    private List<CourseDetailResponse> toDetails(List<Course> courses, List<Topic> topics, List<Subtopic> subtopics) {
+        Map<Long, List<SubtopicDTO>> subtopicsByTopic = new HashMap<>();
+        for (Subtopic subtopic : subtopics) {
+            subtopicsByTopic.computeIfAbsent(subtopic.getTopic().getId(), id -> new ArrayList<>())
+                    .add(SubtopicDTO.builder()
+                            .id(subtopic.getSubtopicId())
+                            .title(subtopic.getTitle())
+                            .content(subtopic.getContent())
+                            .build());
+        }
+        
+        Map<String, List<TopicDTO>> topicsByCourse = new HashMap<>();
+        for (Topic topic : topics) {
+            topicsByCourse.computeIfAbsent(topic.getCourse().getId(), id -> new ArrayList<>())
+                    .add(TopicDTO.builder()
+                            .id(topic.getTopicId())
+                            .title(topic.getTitle())
+                            .subtopics(List.copyOf(subtopicsByTopic.getOrDefault(topic.getId(), List.of())))
+                            .build());
+        }
+        
+        List<CourseDetailResponse> details = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            details.add(CourseDetailResponse.builder()
+                    .id(course.getId())
+                    .title(course.getTitle())
+                    .description(course.getDescription())
+                    .topics(List.copyOf(topicsByCourse.getOrDefault(course.getId(), List.of())))
+                    .build());
+        }
+        return details;
+    }
+}
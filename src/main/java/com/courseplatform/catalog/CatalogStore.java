@@ -0,0 +1,316 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.CourseListDTO;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.dto.response.TopicDTO;
+import com.courseplatform.repository.EnrollmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, read-optimized copy of the course catalog behind the course list and
+ * detail APIs.
+ * <p>
+ * The snapshot holds the finished response DTOs with topic and subtopic counts
+ * already computed. It is built once the application is ready and replaced
+ * atomically when a {@link CatalogChangedEvent} arrives, reloading only the
+ * affected courses, so reads run without SQL or a Hibernate session.
+ * <p>
+ * The course list is kept sorted by id and by title, so a page is a binary search
+ * for the cursor followed by a short scan. Sorting by enrollments is the exception:
+ * it reads the current counts with one grouped query.
+ * <p>
+ * Subtopic content is kept gzipped ({@code catalog.content.compressed}, on by
+ * default): it is inflated only when a full course or subtopic is requested, and
+ * the gzip bytes can be sent unchanged to clients that accept them. Served course
+ * details live encoded in the {@link CourseDetailCache}, so plain strings here
+ * would hold all content on the heap a second time.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.source", havingValue = "snapshot", matchIfMissing = true)
+@Slf4j
+public class CatalogStore implements CourseCatalog {
+    
+    private final CatalogLoader catalogLoader;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean compressContent;
+    
+    private volatile Snapshot snapshot;
+    
+    public CatalogStore(CatalogLoader catalogLoader,
+                        EnrollmentRepository enrollmentRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${catalog.content.compressed:true}") boolean compressContent) {
+        this.catalogLoader = catalogLoader;
+        this.enrollmentRepository = enrollmentRepository;
+        this.compressContent = compressContent;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+    
+    @Override
+    public CoursePage getCourses(CourseQuery query) {
+        Snapshot current = snapshot();
+        CourseCursor after = query.getAfter();
+        
+        switch (query.getSort()) {
+            case TITLE:
+                return page(current.byTitle, after == null ? null : course -> {
+                    int byTitle = course.getTitle().compareTo(after.getTitle());
+                    return byTitle > 0 || (byTitle == 0 && course.getId().compareTo(after.getCourseId()) > 0);
+                }, query, last -> new CourseCursor(CourseSort.TITLE, last.getId(), last.getTitle(), 0));
+            case ENROLLMENTS:
+                // Enrollment counts change without a catalog change, so this order is computed per request
+                Map<String, Long> counts = enrollmentCounts();
+                List<CourseListDTO> byEnrollments = new ArrayList<>(current.byId);
+                byEnrollments.sort(Comparator
+                        .comparingLong((CourseListDTO course) -> counts.getOrDefault(course.getId(), 0L)).reversed()
+                        .thenComparing(CourseListDTO::getId));
+                return page(byEnrollments, after == null ? null : course -> {
+                    long count = counts.getOrDefault(course.getId(), 0L);
+                    return count < after.getEnrollments()
+                            || (count == after.getEnrollments() && course.getId().compareTo(after.getCourseId()) > 0);
+                }, query, last -> new CourseCursor(CourseSort.ENROLLMENTS, last.getId(), null,
+                        counts.getOrDefault(last.getId(), 0L)));
+            default:
+                return page(current.byId, after == null ? null : course -> course.getId().compareTo(after.getCourseId()) > 0,
+                        query, last -> new CourseCursor(CourseSort.ID, last.getId(), null, 0));
+        }
+    }
+    
+    @Override
+    public CourseDetailResponse getCourse(String courseId) {
+        CourseEntry entry = snapshot().courses.get(courseId);
+        return entry == null ? null : entry.detail();
+    }
+    
+    @Override
+    public SubtopicDTO getSubtopic(String courseId, String subtopicId) {
+        CourseEntry entry = snapshot().courses.get(courseId);
+        return entry == null ? null : entry.subtopic(subtopicId);
+    }
+    
+    @Override
+    public CompressedText getCompressedContent(String courseId, String subtopicId) {
+        CourseEntry entry = snapshot().courses.get(courseId);
+        return entry == null || entry.contents == null ? null : entry.contents.get(subtopicId);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(CatalogVersion.REBUILD_ORDER)
+    public synchronized void build() {
+        Map<String, CourseEntry> courses = new HashMap<>();
+        readTransaction.executeWithoutResult(status -> {
+            for (CourseDetailResponse detail : catalogLoader.loadAll()) {
+                courses.put(detail.getId(), new CourseEntry(detail, compressContent));
+            }
+        });
+        
+        snapshot = new Snapshot(courses);
+        log.info("Catalog snapshot built: {} courses", courses.size());
+    }
+    
+    @EventListener
+    @Order(CatalogVersion.REBUILD_ORDER)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Not built yet; the initial build will pick the change up
+            return;
+        }
+        
+        Set<String> courseIds = event.getCourseIds();
+        List<CourseDetailResponse> reloaded = readTransaction.execute(status -> catalogLoader.load(courseIds));
+        
+        Map<String, CourseEntry> courses = new HashMap<>(current.courses);
+        courses.keySet().removeAll(courseIds);
+        for (CourseDetailResponse detail : reloaded) {
+            courses.put(detail.getId(), new CourseEntry(detail, compressContent));
+        }
+        
+        snapshot = new Snapshot(courses);
+        log.info("Catalog snapshot refreshed for courses {}", courseIds);
+    }
+    
+    /**
+     * Returns the page of {@code sorted} that starts at the first course matching
+     * {@code isAfter} (a predicate that is false for a prefix of the list and true
+     * for the rest), found by binary search.
+     */
+    private static CoursePage page(List<CourseListDTO> sorted, Predicate<CourseListDTO> isAfter, CourseQuery query,
+                                   Function<CourseListDTO, CourseCursor> cursorOf) {
+        int low = 0;
+        int high = sorted.size();
+        if (isAfter != null) {
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isAfter.test(sorted.get(mid))) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+        }
+        
+        String title = query.getTitle() == null ? null : query.getTitle().toLowerCase(Locale.ROOT);
+        List<CourseListDTO> fetched = new ArrayList<>(query.getLimit() + 1);
+        for (int i = low; i < sorted.size() && fetched.size() <= query.getLimit(); i++) {
+            CourseListDTO course = sorted.get(i);
+            if (title == null || course.getTitle().toLowerCase(Locale.ROOT).contains(title)) {
+                fetched.add(course);
+            }
+        }
+        return CoursePage.of(fetched, query.getLimit(), cursorOf);
+    }
+    
+    private Map<String, Long> enrollmentCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countEnrollmentsByCourse()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        // Requests can arrive before ApplicationReadyEvent (the server starts first)
+        synchronized (this) {
+            if (snapshot == null) {
+                build();
+            }
+            return snapshot;
+        }
+    }
+    
+    private static final class Snapshot {
+        
+        private final Map<String, CourseEntry> courses;
+        private final List<CourseListDTO> byId;
+        private final List<CourseListDTO> byTitle;
+        
+        Snapshot(Map<String, CourseEntry> courses) {
+            List<CourseListDTO> list = new ArrayList<>(courses.size());
+            for (CourseEntry entry : courses.values()) {
+                list.add(entry.summary);
+            }
+            list.sort(Comparator.comparing(CourseListDTO::getId));
+            this.courses = Collections.unmodifiableMap(courses);
+            this.byId = Collections.unmodifiableList(list);
+            
+            List<CourseListDTO> titles = new ArrayList<>(list);
+            titles.sort(Comparator.comparing(CourseListDTO::getTitle).thenComparing(CourseListDTO::getId));
+            this.byTitle = Collections.unmodifiableList(titles);
+        }
+    }
+    
+    /**
+     * One course of the snapshot. When content is compressed, {@code detail} and
+     * {@code subtopics} carry no content and {@code contents} holds it instead.
+     */
+    private static final class CourseEntry {
+        
+        private final CourseDetailResponse detail;
+        private final CourseListDTO summary;
+        private final Map<String, SubtopicDTO> subtopics = new HashMap<>();
+        private final Map<String, CompressedText> contents;
+        
+        CourseEntry(CourseDetailResponse loaded, boolean compress) {
+            this.contents = compress ? new HashMap<>() : null;
+            
+            List<TopicDTO> topics = new ArrayList<>(loaded.getTopics().size());
+            int subtopicCount = 0;
+            for (TopicDTO topic : loaded.getTopics()) {
+                List<SubtopicDTO> topicSubtopics = new ArrayList<>(topic.getSubtopics().size());
+                for (SubtopicDTO subtopic : topic.getSubtopics()) {
+                    SubtopicDTO kept = subtopic;
+                    if (compress && subtopic.getContent() != null) {
+                        contents.put(subtopic.getId(), CompressedText.compress(subtopic.getContent()));
+                        kept = SubtopicDTO.builder().id(subtopic.getId()).title(subtopic.getTitle()).build();
+                    }
+                    topicSubtopics.add(kept);
+                    subtopics.put(kept.getId(), kept);
+                }
+                subtopicCount += topicSubtopics.size();
+                topics.add(TopicDTO.builder()
+                        .id(topic.getId())
+                        .title(topic.getTitle())
+                        .subtopics(List.copyOf(topicSubtopics))
+                        .build());
+            }
+            
+            this.detail = CourseDetailResponse.builder()
+                    .id(loaded.getId())
+                    .title(loaded.getTitle())
+                    .description(loaded.getDescription())
+                    .topics(List.copyOf(topics))
+                    .build();
+            this.summary = CourseListDTO.builder()
+                    .id(loaded.getId())
+                    .title(loaded.getTitle())
+                    .description(loaded.getDescription())
+                    .topicCount(topics.size())
+                    .subtopicCount(subtopicCount)
+                    .build();
+        }
+        
+        CourseDetailResponse detail() {
+            if (contents == null) {
+                return detail;
+            }
+            return CourseDetailResponse.builder()
+                    .id(detail.getId())
+                    .title(detail.getTitle())
+                    .description(detail.getDescription())
+                    .topics(detail.getTopics().stream()
+                            .map(topic -> TopicDTO.builder()
+                                    .id(topic.getId())
+                                    .title(topic.getTitle())
+                                    .subtopics(topic.getSubtopics().stream()
+                                            .map(this::inflate)
+                                            .collect(Collectors.toList()))
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+        
+        SubtopicDTO subtopic(String subtopicId) {
+            SubtopicDTO subtopic = subtopics.get(subtopicId);
+            return subtopic == null || contents == null ? subtopic : inflate(subtopic);
+        }
+        
+        private SubtopicDTO inflate(SubtopicDTO subtopic) {
+            CompressedText content = contents.get(subtopic.getId());
+            return SubtopicDTO.builder()
+                    .id(subtopic.getId())
+                    .title(subtopic.getTitle())
+                    .content(content != null ? content.text() : null)
+                    .build();
+        }
+    }
+}
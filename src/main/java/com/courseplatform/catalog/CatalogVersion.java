@@ -0,0 +1,183 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.dto.response.TopicDTO;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the course catalog, bumped after every committed content
+ * change. Caches of catalog-derived data include it in their keys, so entries
+ * built from older content are never served again.
+ * <p>
+ * Listeners that rebuild derived state (such as the search index) must be
+ * annotated with {@code @Order(CatalogVersion.REBUILD_ORDER)} so they finish
+ * before the version moves; otherwise a request could cache stale results under
+ * the new version.
+ * <p>
+ * Each course also keeps the version at which it last changed. The versions
+ * restart from zero with the application, so the ETags are instead hashes of
+ * the persisted content: the same on every instance and across restarts, and
+ * changed only when a course's content is. There are no ETags until the hashes
+ * are computed once the application is ready.
+ */
+@Component
+public class CatalogVersion {
+    
+    public static final int REBUILD_ORDER = 0;
+    
+    private static final int TAG_BYTES = 12;
+    private static final byte NULL = 0;
+    private static final byte VALUE = 1;
+    private static final byte TOPIC = 2;
+    private static final byte SUBTOPIC = 3;
+    
+    private final CatalogLoader catalogLoader;
+    private final TransactionTemplate readTransaction;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Long> courseVersions = new ConcurrentHashMap<>();
+    
+    // Null until computed at startup
+    private volatile Tags tags;
+    
+    public CatalogVersion(CatalogLoader catalogLoader, PlatformTransactionManager transactionManager) {
+        this.catalogLoader = catalogLoader;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+    
+    public long current() {
+        return version.get();
+    }
+    
+    /** Version at which the course last changed, or 0 if it has not changed since startup. */
+    public long course(String courseId) {
+        return courseVersions.getOrDefault(courseId, 0L);
+    }
+    
+    /** ETag of the whole catalog, or {@code null} before it has been hashed. */
+    public String etag() {
+        Tags current = tags;
+        return current == null ? null : "\"" + current.catalog + "\"";
+    }
+    
+    /** ETag of the course, or {@code null} if it has not been hashed (yet). */
+    public String etag(String courseId) {
+        Tags current = tags;
+        String tag = current == null ? null : current.courses.get(courseId);
+        return tag == null ? null : "\"" + tag + "\"";
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onStartup() {
+        List<CourseDetailResponse> courses = readTransaction.execute(status -> catalogLoader.loadAll());
+        tags = new Tags(Map.of()).with(Set.of(), courses);
+        version.incrementAndGet();
+    }
+    
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        if (tags != null) {
+            // Before startup there is nothing to update; the startup hashes see the change
+            List<CourseDetailResponse> courses = readTransaction.execute(status -> catalogLoader.load(event.getCourseIds()));
+            tags = tags.with(event.getCourseIds(), courses);
+        }
+        
+        long next = version.incrementAndGet();
+        for (String courseId : event.getCourseIds()) {
+            courseVersions.put(courseId, next);
+        }
+    }
+    
+    private static final class Tags {
+        
+        private final Map<String, String> courses; // sorted by id
+        private final String catalog;
+        
+        Tags(Map<String, String> courses) {
+            this.courses = courses;
+            MessageDigest digest = sha256();
+            courses.forEach((courseId, tag) -> {
+                update(digest, courseId);
+                update(digest, tag);
+            });
+            this.catalog = tag(digest);
+        }
+        
+        /** Returns these tags with {@code removed} dropped and {@code loaded} rehashed. */
+        Tags with(Set<String> removed, List<CourseDetailResponse> loaded) {
+            Map<String, String> updated = new TreeMap<>(courses);
+            updated.keySet().removeAll(removed);
+            for (CourseDetailResponse course : loaded) {
+                updated.put(course.getId(), hash(course));
+            }
+            return new Tags(updated);
+        }
+    }
+    
+    private static String hash(CourseDetailResponse course) {
+        MessageDigest digest = sha256();
+        update(digest, course.getId());
+        update(digest, course.getTitle());
+        update(digest, course.getDescription());
+        for (TopicDTO topic : course.getTopics()) {
+            digest.update(TOPIC);
+            update(digest, topic.getId());
+            update(digest, topic.getTitle());
+            for (SubtopicDTO subtopic : topic.getSubtopics()) {
+                digest.update(SUBTOPIC);
+                update(digest, subtopic.getId());
+                update(digest, subtopic.getTitle());
+                update(digest, subtopic.getContent());
+            }
+        }
+        return tag(digest);
+    }
+    
+    // Length-prefixed, so adjacent fields cannot run into each other
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(VALUE);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+    
+    private static String tag(MessageDigest digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), TAG_BYTES));
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.courseplatform.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Text held gzip-compressed. The compressed bytes can be sent unchanged to
+ * clients that accept gzip; the text itself is only inflated when asked for.
+ */
+public final class CompressedText {
+    
+    private final byte[] gzip;
+    
+    private CompressedText(byte[] gzip) {
+        this.gzip = gzip;
+    }
+    
+    public static CompressedText compress(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CompressedText(out.toByteArray());
+    }
+    
+    public String text() {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Returns the gzip encoding of the UTF-8 text. The array is shared and must
+     * not be modified.
+     */
+    public byte[] gzip() {
+        return gzip;
+    }
+}
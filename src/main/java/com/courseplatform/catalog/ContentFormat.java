@@ -0,0 +1,27 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Formats subtopic content can be returned in.
+ */
+public enum ContentFormat {
+    
+    /** The content as authored. */
+    MARKDOWN,
+    /** The content rendered to an HTML fragment by {@link ContentRenderer}. */
+    HTML;
+    
+    public static ContentFormat fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return MARKDOWN;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown format '" + value + "'; expected markdown or html");
+        }
+    }
+}
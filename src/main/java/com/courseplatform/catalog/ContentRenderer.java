@@ -0,0 +1,170 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.CourseListDTO;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.dto.response.TopicDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Renders subtopic markdown to HTML fragments.
+ * <p>
+ * Rendered output is cached by the SHA-256 of the markdown, so identical content
+ * is rendered once however many subtopics or courses share it, and a changed
+ * course only costs rendering for the subtopics whose content actually changed.
+ * With {@code catalog.render.prerender=true} the whole catalog is rendered on a
+ * background thread once the application is ready, and the changed courses after
+ * each {@link CatalogChangedEvent}, so requests normally find their HTML cached.
+ * <p>
+ * Raw HTML in the markdown is escaped and unsafe link schemes are dropped.
+ */
+@Component
+@Slf4j
+public class ContentRenderer {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int PRERENDER_PAGE_SIZE = 100;
+    
+    private final CourseCatalog courseCatalog;
+    private final boolean prerender;
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer htmlRenderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .build();
+    private final Cache<String, String> rendered;
+    private final ExecutorService prerenderExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "content-prerender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ContentRenderer(CourseCatalog courseCatalog,
+                           @Value("${catalog.render.prerender:true}") boolean prerender,
+                           @Value("${catalog.render.cache.max-bytes:33554432}") long maxBytes) {
+        this.courseCatalog = courseCatalog;
+        this.prerender = prerender;
+        this.rendered = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String hash, String html) -> ENTRY_OVERHEAD_BYTES + 2 * html.length())
+                .build();
+    }
+    
+    /**
+     * Returns {@code markdown} rendered to HTML, or {@code null} for no content.
+     */
+    public String render(String markdown) {
+        if (markdown == null) {
+            return null;
+        }
+        return rendered.get(hash(markdown), hash -> htmlRenderer.render(parser.parse(markdown)));
+    }
+    
+    /**
+     * Returns a copy of {@code course} with every subtopic's content rendered to HTML.
+     */
+    public CourseDetailResponse render(CourseDetailResponse course) {
+        List<TopicDTO> topics = course.getTopics().stream()
+                .map(topic -> TopicDTO.builder()
+                        .id(topic.getId())
+                        .title(topic.getTitle())
+                        .subtopics(topic.getSubtopics().stream()
+                                .map(subtopic -> SubtopicDTO.builder()
+                                        .id(subtopic.getId())
+                                        .title(subtopic.getTitle())
+                                        .content(render(subtopic.getContent()))
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
+                .collect(Collectors.toList());
+        
+        return CourseDetailResponse.builder()
+                .id(course.getId())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .topics(topics)
+                .build();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void prerenderCatalog() {
+        if (prerender) {
+            prerenderExecutor.execute(() -> {
+                long start = System.nanoTime();
+                int courses = 0;
+                CourseCursor after = null;
+                do {
+                    CoursePage page = courseCatalog.getCourses(new CourseQuery(CourseSort.ID, null, after, PRERENDER_PAGE_SIZE));
+                    for (CourseListDTO course : page.getCourses()) {
+                        prerender(course.getId());
+                        courses++;
+                    }
+                    after = page.getNext();
+                } while (after != null);
+                log.info("Pre-rendered content of {} courses in {} ms", courses, (System.nanoTime() - start) / 1_000_000);
+            });
+        }
+    }
+    
+    // After the catalog has been rebuilt, so the changed content is visible
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (prerender) {
+            Collection<String> courseIds = event.getCourseIds();
+            prerenderExecutor.execute(() -> courseIds.forEach(this::prerender));
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        prerenderExecutor.shutdownNow();
+    }
+    
+    private void prerender(String courseId) {
+        try {
+            CourseDetailResponse course = courseCatalog.getCourse(courseId);
+            if (course == null) {
+                return;
+            }
+            for (TopicDTO topic : course.getTopics()) {
+                for (SubtopicDTO subtopic : topic.getSubtopics()) {
+                    render(subtopic.getContent());
+                }
+            }
+        } catch (RuntimeException e) {
+            // Requests render on demand; a failed pre-render only costs latency
+            log.warn("Could not pre-render course {}", courseId, e);
+        }
+    }
+    
+    private static String hash(String markdown) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.SubtopicDTO;
+
+/**
+ * Source of the course list and detail views. Selected with the
+ * {@code catalog.source} property.
+ */
+public interface CourseCatalog {
+    
+    /**
+     * Returns one keyset page of the course list in {@code query.getSort()} order.
+     */
+    CoursePage getCourses(CourseQuery query);
+    
+    /**
+     * Returns the detail view of a course, or {@code null} if it does not exist.
+     */
+    CourseDetailResponse getCourse(String courseId);
+    
+    /**
+     * Returns a subtopic of the course, with content, or {@code null} if the
+     * course has no such subtopic.
+     */
+    SubtopicDTO getSubtopic(String courseId, String subtopicId);
+    
+    /**
+     * Returns the subtopic content as stored gzip-compressed, or {@code null} if
+     * the catalog does not keep it compressed (or has no such subtopic).
+     */
+    default CompressedText getCompressedContent(String courseId, String subtopicId) {
+        return null;
+    }
+}
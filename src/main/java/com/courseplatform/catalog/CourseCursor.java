@@ -0,0 +1,48 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the course list: the sort keys of the last course on
+ * the previous page. Only the key used by {@link #getSort()} is meaningful.
+ */
+@Value
+public class CourseCursor {
+    
+    CourseSort sort;
+    String courseId;
+    String title;
+    long enrollments;
+    
+    public static CourseCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = decoded.indexOf('|');
+            int second = decoded.indexOf('|', first + 1);
+            CourseSort sort = CourseSort.valueOf(decoded.substring(0, first));
+            String courseId = decoded.substring(first + 1, second);
+            String key = decoded.substring(second + 1);
+            return switch (sort) {
+                case ID -> new CourseCursor(sort, courseId, null, 0);
+                case TITLE -> new CourseCursor(sort, courseId, key, 0);
+                case ENROLLMENTS -> new CourseCursor(sort, courseId, null, Long.parseLong(key));
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid course cursor");
+        }
+    }
+    
+    public String encode() {
+        String key = switch (sort) {
+            case ID -> "";
+            case TITLE -> title;
+            case ENROLLMENTS -> Long.toString(enrollments);
+        };
+        String raw = sort.name() + "|" + courseId + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,153 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Course detail responses kept as already-encoded UTF-8 JSON, plus a gzip variant,
+ * in direct byte buffers. Serving a cached detail builds no response objects and
+ * runs no serializer; the bytes are copied straight to the servlet output stream,
+ * and the large content strings stay off the heap.
+ * <p>
+ * Entries are keyed by course, {@link CourseView} and {@link ContentFormat} and carry the per-course
+ * catalog version they were built at, so a changed course is re-encoded on its
+ * next request.
+ */
+@Component
+public class CourseDetailCache {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    // Below this, gzip saves too little to be worth the Content-Encoding round trip
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final int WRITE_CHUNK_BYTES = 8192;
+    
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Key, EncodedDetail> cache;
+    
+    public CourseDetailCache(CatalogVersion catalogVersion,
+                             ObjectMapper objectMapper,
+                             @Value("${catalog.detail-cache.enabled:true}") boolean enabled,
+                             @Value("${catalog.detail-cache.max-bytes:67108864}") long maxBytes) {
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, EncodedDetail detail) -> detail.weight())
+                .build();
+    }
+    
+    /**
+     * Returns the encoded view of the course, encoding the result of
+     * {@code loader} when nothing is cached for its current version.
+     */
+    public EncodedDetail get(String courseId, CourseView view, ContentFormat format,
+                             Supplier<CourseDetailResponse> loader) {
+        // Read before loading, so an entry is never labelled newer than its content
+        long version = catalogVersion.course(courseId);
+        if (!enabled) {
+            return encode(version, loader.get());
+        }
+        
+        Key key = new Key(courseId, view, format);
+        EncodedDetail cached = cache.getIfPresent(key);
+        if (cached != null && cached.version >= version) {
+            return cached;
+        }
+        
+        // Concurrent misses for the key wait for one encoding; an entry newer than ours is kept
+        return cache.asMap().compute(key, (k, current) ->
+                current != null && current.version >= version ? current : encode(version, loader.get()));
+    }
+    
+    private EncodedDetail encode(long version, CourseDetailResponse detail) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(detail);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode course " + detail.getId(), e);
+        }
+        return new EncodedDetail(version, toDirect(json), json.length >= GZIP_MIN_BYTES ? toDirect(gzip(json)) : null);
+    }
+    
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static ByteBuffer toDirect(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer.asReadOnlyBuffer();
+    }
+    
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String courseId;
+        private final CourseView view;
+        private final ContentFormat format;
+    }
+    
+    public static final class EncodedDetail {
+        
+        @Getter
+        private final long version;
+        private final ByteBuffer json;
+        private final ByteBuffer gzip;
+        
+        EncodedDetail(long version, ByteBuffer json, ByteBuffer gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+        
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+        
+        public int length(boolean gzipped) {
+            return (gzipped ? gzip : json).capacity();
+        }
+        
+        /**
+         * Copies the JSON, or its gzip encoding, to {@code out} in small chunks.
+         */
+        public void writeTo(OutputStream out, boolean gzipped) throws IOException {
+            ByteBuffer source = (gzipped ? gzip : json).duplicate();
+            byte[] chunk = new byte[Math.min(WRITE_CHUNK_BYTES, source.remaining())];
+            while (source.hasRemaining()) {
+                int length = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+        
+        int weight() {
+            return ENTRY_OVERHEAD_BYTES + json.capacity() + (gzip != null ? gzip.capacity() : 0);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseListDTO;
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Value
+public class CoursePage {
+    
+    List<CourseListDTO> courses;
+    /** Position of the last course, or {@code null} if this is the last page. */
+    CourseCursor next;
+    
+    /**
+     * Builds a page from up to {@code limit + 1} courses in page order; the extra
+     * course only signals that another page exists.
+     */
+    public static CoursePage of(List<CourseListDTO> fetched, int limit, Function<CourseListDTO, CourseCursor> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CoursePage(fetched, null);
+        }
+        List<CourseListDTO> courses = fetched.subList(0, limit);
+        return new CoursePage(courses, cursorOf.apply(courses.get(limit - 1)));
+    }
+}
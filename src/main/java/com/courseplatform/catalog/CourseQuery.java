@@ -0,0 +1,17 @@
+package com.courseplatform.catalog;
+
+import lombok.Value;
+
+/**
+ * One page request against a {@link CourseCatalog}.
+ */
+@Value
+public class CourseQuery {
+    
+    CourseSort sort;
+    /** Case-insensitive title substring, or {@code null} for all courses. */
+    String title;
+    /** Position after which the page starts, or {@code null} for the first page. */
+    CourseCursor after;
+    int limit;
+}
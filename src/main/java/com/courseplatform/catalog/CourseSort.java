@@ -0,0 +1,30 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Orderings of the course list. Every ordering ends with the course id, so it is
+ * total and can be resumed from a {@link CourseCursor}.
+ */
+public enum CourseSort {
+    
+    /** Course id ascending. */
+    ID,
+    /** Title ascending, then id. */
+    TITLE,
+    /** Enrollment count descending, then id. */
+    ENROLLMENTS;
+    
+    public static CourseSort fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown sort '" + value + "'; expected id, title or enrollments");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Representations of a course detail.
+ */
+public enum CourseView {
+    
+    /** Topics and subtopics including subtopic content. */
+    FULL,
+    /** Topic and subtopic ids and titles only; content is fetched per subtopic. */
+    OUTLINE;
+    
+    public static CourseView fromParameter(String value) {
+        if (value == null || value.isEmpty()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown view '" + value + "'; expected full or outline");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.CourseListDTO;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the catalog from the database on every request. Course list pages are
+ * keyset queries over grouped projections, so no topic or subtopic rows are
+ * transferred and no page is found by skipping rows with OFFSET.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.source", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseCatalog implements CourseCatalog {
+    
+    private final CourseRepository courseRepository;
+    private final SubtopicRepository subtopicRepository;
+    private final CatalogLoader catalogLoader;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CoursePage getCourses(CourseQuery query) {
+        CourseCursor after = query.getAfter();
+        String afterId = after == null ? "" : after.getCourseId();
+        String title = query.getTitle() == null ? "" : query.getTitle();
+        Limit fetch = Limit.of(query.getLimit() + 1);
+        
+        return switch (query.getSort()) {
+            case ID -> CoursePage.of(
+                    courseRepository.findCourseSummariesAfterId(afterId, title, fetch),
+                    query.getLimit(),
+                    last -> new CourseCursor(CourseSort.ID, last.getId(), null, 0));
+            case TITLE -> CoursePage.of(
+                    courseRepository.findCourseSummariesAfterTitle(
+                            after == null ? "" : after.getTitle(), afterId, title, fetch),
+                    query.getLimit(),
+                    last -> new CourseCursor(CourseSort.TITLE, last.getId(), last.getTitle(), 0));
+            case ENROLLMENTS -> enrollmentPage(
+                    after == null ? Long.MAX_VALUE : after.getEnrollments(), afterId, title, fetch, query.getLimit());
+        };
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CourseDetailResponse getCourse(String courseId) {
+        List<CourseDetailResponse> loaded = catalogLoader.load(List.of(courseId));
+        return loaded.isEmpty() ? null : loaded.get(0);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public SubtopicDTO getSubtopic(String courseId, String subtopicId) {
+        return subtopicRepository.findByTopicCourseIdAndSubtopicId(courseId, subtopicId)
+                .map(subtopic -> SubtopicDTO.builder()
+                        .id(subtopic.getSubtopicId())
+                        .title(subtopic.getTitle())
+                        .content(subtopic.getContent())
+                        .build())
+                .orElse(null);
+    }
+    
+    private CoursePage enrollmentPage(long afterCount, String afterId, String title, Limit fetch, int limit) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object[] row : courseRepository.findEnrollmentCountsAfter(afterCount, afterId, title, fetch)) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        if (counts.isEmpty()) {
+            return new CoursePage(List.of(), null);
+        }
+        
+        Map<String, CourseListDTO> summaries = new HashMap<>();
+        for (CourseListDTO summary : courseRepository.findCourseSummariesByIdIn(counts.keySet())) {
+            summaries.put(summary.getId(), summary);
+        }
+        List<CourseListDTO> ordered = new ArrayList<>(counts.size());
+        for (String courseId : counts.keySet()) {
+            ordered.add(summaries.get(courseId));
+        }
+        
+        return CoursePage.of(ordered, limit,
+                last -> new CourseCursor(CourseSort.ENROLLMENTS, last.getId(), null, counts.get(last.getId())));
+    }
+}
@@ -0,0 +1,34 @@
+package com.courseplatform.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class EntityCacheConfig {
+    
+    /**
+     * Gives the second-level cache of this application context its own JCache manager.
+     * The provider shares managers by URI across the JVM, which would let contexts on
+     * different databases (tests, benchmarks) read each other's entities. Any URI
+     * other than a file or classpath one makes Caffeine load application.conf.
+     * Hibernate closes the manager when the session factory shuts down.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManager() {
+        return properties -> {
+            if (Boolean.parseBoolean(String.valueOf(properties.get("hibernate.cache.use_second_level_cache")))) {
+                CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+                URI uri = URI.create("urn:courseplatform:entity-cache:" + UUID.randomUUID());
+                properties.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(uri, provider.getDefaultClassLoader()));
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.courseplatform.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+
+import java.io.Serializable;
+
+/**
+ * Weighs second-level cache entries by the approximate heap size of their
+ * cached state, for regions bounded by {@code policy.maximum.weight} in
+ * application.conf. Strings count two bytes per char; other fields and the
+ * entry itself a flat overhead.
+ */
+public class EntityCacheWeigher implements Weigher<Object, Object> {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int FIELD_OVERHEAD_BYTES = 16;
+    
+    @Override
+    public int weigh(Object key, Object value) {
+        // Read-write regions wrap the entry in an item, or hold a lock while it is being written
+        Object entry = value instanceof AbstractReadWriteAccess.Lockable lockable ? lockable.getValue() : value;
+        long weight = ENTRY_OVERHEAD_BYTES;
+        if (entry instanceof CacheEntry cacheEntry) {
+            for (Serializable field : cacheEntry.getDisassembledState()) {
+                weight += FIELD_OVERHEAD_BYTES;
+                if (field instanceof String text) {
+                    weight += 2L * text.length();
+                }
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+}
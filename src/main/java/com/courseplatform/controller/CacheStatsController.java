@@ -0,0 +1,27 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.dto.response.EntityCacheStatsResponse;
+import com.courseplatform.service.EntityCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache-stats")
+@RequiredArgsConstructor
+@Tag(name = "Cache statistics", description = "Hit ratios of the persistence caches")
+public class CacheStatsController {
+    
+    private final EntityCacheService entityCacheService;
+    
+    @GetMapping("/entities")
+    @Operation(summary = "Entity cache statistics", description = "Hit/miss/put counters of the Hibernate " +
+            "second-level cache per region, and of the query cache")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<EntityCacheStatsResponse> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getCacheStats());
+    }
+}
@@ -1,13 +1,30 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.catalog.CompressedText;
+import com.courseplatform.catalog.ContentFormat;
+import com.courseplatform.catalog.CourseDetailCache.EncodedDetail;
+import com.courseplatform.catalog.CourseSort;
 import com.courseplatform.dto.response.CourseDetailResponse;
 import com.courseplatform.dto.response.CourseListResponse;
+import com.courseplatform.dto.response.SubtopicDTO;
 import com.courseplatform.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -15,17 +32,132 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Courses", description = "Public course browsing APIs")
 public class CourseController {
     
+    private static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+    private static final MediaType HTML = new MediaType("text", "html", StandardCharsets.UTF_8);
+    
     private final CourseService courseService;
+    private final CatalogVersion catalogVersion;
     
     @GetMapping
-    @Operation(summary = "Get all courses", description = "Retrieve list of all available courses")
-    public ResponseEntity<CourseListResponse> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    @Operation(summary = "Get all courses", description = "Retrieve a page of available courses, sorted by " +
+            "id, title or enrollments and optionally filtered by title; pass the returned nextCursor " +
+            "(with the same sort) to fetch the next page")
+    public ResponseEntity<CourseListResponse> getAllCourses(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String title,
+            WebRequest request) {
+        // Enrollment order changes without a catalog change, so it is not versioned.
+        // The tag is read before the content so a concurrent change can only make it older.
+        String etag = CourseSort.fromParameter(sort) == CourseSort.ENROLLMENTS ? null : catalogVersion.etag();
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            ok.eTag(etag);
+        }
+        return ok.body(courseService.getAllCourses(limit, cursor, sort, title));
     }
     
     @GetMapping("/{courseId}")
-    @Operation(summary = "Get course by ID", description = "Retrieve detailed information about a specific course")
-    public ResponseEntity<CourseDetailResponse> getCourseById(@PathVariable String courseId) {
-        return ResponseEntity.ok(courseService.getCourseById(courseId));
+    @Operation(summary = "Get course by ID", description = "Retrieve detailed information about a specific course. " +
+            "With view=outline only topic and subtopic ids and titles are returned; fetch content per subtopic. " +
+            "With format=html subtopic content is rendered to HTML")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CourseDetailResponse.class)))
+    public void getCourseById(@PathVariable String courseId,
+                              @RequestParam(required = false) String view,
+                              @RequestParam(required = false) String format,
+                              WebRequest request,
+                              HttpServletResponse response) throws IOException {
+        String courseTag = catalogVersion.etag(courseId);
+        // Resolved before the tag is checked, so an unknown course is a 404 and never a 304
+        EncodedDetail detail = courseService.getEncodedCourseById(courseId, view, format);
+        boolean gzip = detail.hasGzip() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        
+        String etag = encodingTag(courseTag, gzip);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null && request.checkNotModified(etag)) {
+            return;
+        }
+        
+        // Written as pre-encoded bytes rather than through the JSON message converter
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(detail.length(gzip));
+        detail.writeTo(response.getOutputStream(), gzip);
+    }
+    
+    @GetMapping("/{courseId}/subtopics/{subtopicId}")
+    @Operation(summary = "Get subtopic content", description = "Retrieve the markdown content of one subtopic, " +
+            "or with format=html the content rendered to an HTML fragment")
+    public ResponseEntity<byte[]> getSubtopicContent(@PathVariable String courseId,
+                                                     @PathVariable String subtopicId,
+                                                     @RequestParam(required = false) String format,
+                                                     WebRequest request) {
+        ContentFormat contentFormat = ContentFormat.fromParameter(format);
+        String courseTag = catalogVersion.etag(courseId);
+        // Resolved before the tag is checked, so an unknown course or subtopic is a 404 and never a 304
+        SubtopicDTO subtopic = courseService.getSubtopic(courseId, subtopicId);
+        // Content the catalog keeps gzipped is sent as stored
+        CompressedText compressed = contentFormat == ContentFormat.MARKDOWN
+                && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                ? courseService.getCompressedSubtopicContent(courseId, subtopicId)
+                : null;
+        
+        String etag = encodingTag(courseTag, compressed != null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag != null) {
+            ok.eTag(etag);
+        }
+        
+        if (contentFormat == ContentFormat.HTML) {
+            String html = courseService.getSubtopicHtml(courseId, subtopicId);
+            return ok.contentType(HTML).body(html == null ? new byte[0] : html.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        ok.contentType(MARKDOWN);
+        if (compressed != null) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(compressed.gzip());
+        }
+        String content = subtopic.getContent();
+        return ok.body(content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // A gzip body is a different representation from the identity one, so it gets its own strong tag
+    private static String encodingTag(String etag, boolean gzip) {
+        if (etag == null || !gzip) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
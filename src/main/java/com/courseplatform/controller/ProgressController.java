@@ -1,11 +1,14 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.dto.request.BatchProgressRequest;
+import com.courseplatform.dto.response.BatchProgressResponse;
 import com.courseplatform.dto.response.EnrollmentProgressResponse;
 import com.courseplatform.dto.response.ProgressResponse;
 import com.courseplatform.service.ProgressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -29,11 +32,23 @@ public class ProgressController {
         return ResponseEntity.ok(progressService.markSubtopicComplete(userDetails.getUsername(), subtopicId));
     }
     
+    @PostMapping("/progress/batch")
+    @Operation(summary = "Mark subtopics as completed", description = "Mark many subtopics as completed in one request, " +
+            "optionally with the time each was completed (e.g. progress made offline). Already completed subtopics keep " +
+            "their original time")
+    public ResponseEntity<BatchProgressResponse> markSubtopicsComplete(
+            @Valid @RequestBody BatchProgressRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(progressService.markSubtopicsComplete(userDetails.getUsername(), request.getCompletions()));
+    }
+    
     @GetMapping("/enrollments/{enrollmentId}/progress")
-    @Operation(summary = "View enrollment progress", description = "Get detailed progress for a specific enrollment")
+    @Operation(summary = "View enrollment progress", description = "Get the progress summary for a specific enrollment. " +
+            "With includeItems=true the completed subtopics are listed as well")
     public ResponseEntity<EnrollmentProgressResponse> getEnrollmentProgress(
             @PathVariable Long enrollmentId,
+            @RequestParam(defaultValue = "false") boolean includeItems,
             @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(progressService.getEnrollmentProgress(enrollmentId, userDetails.getUsername()));
+        return ResponseEntity.ok(progressService.getEnrollmentProgress(enrollmentId, userDetails.getUsername(), includeItems));
     }
 }
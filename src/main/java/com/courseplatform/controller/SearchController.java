@@ -1,8 +1,11 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.dto.response.SearchCacheStatsResponse;
 import com.courseplatform.dto.response.SearchResponse;
+import com.courseplatform.dto.response.SuggestResponse;
 import com.courseplatform.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,8 +20,30 @@ public class SearchController {
     private final SearchService searchService;
     
     @GetMapping
-    @Operation(summary = "Search courses", description = "Search across courses, topics, and subtopics")
-    public ResponseEntity<SearchResponse> search(@RequestParam String q) {
-        return ResponseEntity.ok(searchService.search(q));
+    @Operation(summary = "Search courses", description = "Search across courses, topics, and subtopics. " +
+            "Results are ranked by relevance; pass the returned nextCursor to fetch the next page. " +
+            "With fuzzy=true, misspelled terms are replaced by the closest known terms")
+    public ResponseEntity<SearchResponse> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        return ResponseEntity.ok(searchService.search(q, limit, cursor, fuzzy));
+    }
+    
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest titles", description = "Autocomplete course, topic and subtopic titles " +
+            "from a prefix of any word, most popular first")
+    public ResponseEntity<SuggestResponse> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.suggest(prefix, limit));
+    }
+    
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Search cache statistics", description = "Hit/miss counters of the search result cache")
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<SearchCacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(searchService.getCacheStats());
     }
 }
@@ -0,0 +1,17 @@
+package com.courseplatform.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchProgressRequest {
+    
+    @NotEmpty(message = "At least one completion is required")
+    @Size(max = 1000, message = "At most 1000 completions per request")
+    @Valid
+    private List<CompletionRequest> completions;
+}
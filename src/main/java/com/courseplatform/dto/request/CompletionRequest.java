@@ -0,0 +1,16 @@
+package com.courseplatform.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class CompletionRequest {
+    
+    @NotBlank(message = "Subtopic id is required")
+    private String subtopicId;
+    
+    // When the client completed the subtopic (e.g. while offline); defaults to now
+    private LocalDateTime completedAt;
+}
@@ -13,4 +13,5 @@ import java.util.List;
 @AllArgsConstructor
 public class CourseListResponse {
     private List<CourseListDTO> courses;
+    private String nextCursor;
 }
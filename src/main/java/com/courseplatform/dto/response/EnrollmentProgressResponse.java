@@ -1,5 +1,6 @@
 package com.courseplatform.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,5 +19,7 @@ public class EnrollmentProgressResponse {
     private int totalSubtopics;
     private int completedSubtopics;
     private double completionPercentage;
+    // Only listed when requested with includeItems=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<CompletedItemDTO> completedItems;
 }
@@ -0,0 +1,24 @@
+package com.courseplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityCacheStatsResponse {
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRate;
+    private long queryHitCount;
+    private long queryMissCount;
+    private long queryPutCount;
+    private double queryHitRate;
+    private List<CacheRegionStatsDTO> regions;
+}
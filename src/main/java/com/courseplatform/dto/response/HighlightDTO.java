@@ -0,0 +1,15 @@
+package com.courseplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HighlightDTO {
+    private int start; // inclusive UTF-16 offset into the snippet
+    private int end;   // exclusive
+}
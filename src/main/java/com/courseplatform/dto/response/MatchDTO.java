@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,5 @@ public class MatchDTO {
     private String subtopicId;
     private String subtopicTitle;
     private String snippet;
+    private List<HighlightDTO> highlights; // ranges of snippet that matched the query
 }
@@ -13,5 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 public class SearchResponse {
     private String query;
+    private String correctedQuery; // set when fuzzy search rewrote misspelled terms
     private List<SearchResultDTO> results;
+    private String nextCursor; // null on the last page
 }
@@ -14,5 +14,7 @@ import java.util.List;
 public class SearchResultDTO {
     private String courseId;
     private String courseTitle;
+    private double score;
+    private int totalMatches; // may exceed matches.size(), which is capped per result
     private List<MatchDTO> matches;
 }
@@ -1,5 +1,6 @@
 package com.courseplatform.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,5 +13,7 @@ import lombok.NoArgsConstructor;
 public class SubtopicDTO {
     private String id;
     private String title;
+    // Left out of outline views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String content;
 }
@@ -1,16 +1,21 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+@EntityListeners(CatalogEntityListener.class)
+@Table(name = "courses", indexes = @Index(name = "idx_courses_title", columnList = "title, id"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courses")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,8 +31,13 @@ public class Course {
     @Column(columnDefinition = "TEXT")
     private String description;
     
+    // Maintained by ProgressCounters; null until counted (new courses, rows older than the column)
+    @Column(name = "subtopic_count")
+    private Integer subtopicCount;
+    
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course-topics")
     @Builder.Default
     private List<Topic> topics = new ArrayList<>();
     
@@ -32,8 +32,16 @@ public class Enrollment {
     @Column(name = "enrolled_at", nullable = false)
     private LocalDateTime enrolledAt;
     
+    // Completed subtopics, incremented with each inserted completion; null only for rows older than the column
+    @Column(name = "completed_count")
+    @Builder.Default
+    private Integer completedCount = 0;
+    
     @PrePersist
     protected void onCreate() {
         enrolledAt = LocalDateTime.now();
+        if (completedCount == null) {
+            completedCount = 0;
+        }
     }
 }
@@ -1,14 +1,19 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "subtopics")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subtopics")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
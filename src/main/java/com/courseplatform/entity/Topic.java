@@ -1,17 +1,22 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "topics")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topics")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,6 +40,7 @@ public class Topic {
     
     @OneToMany(mappedBy = "topic", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topic-subtopics")
     @Builder.Default
     private List<Subtopic> subtopics = new ArrayList<>();
     
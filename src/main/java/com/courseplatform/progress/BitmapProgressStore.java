@@ -0,0 +1,454 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.dto.response.CompletedItemDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps completions as one {@link CompletionBitmap} per enrollment instead of a
+ * row per completed subtopic: the bitmap in {@code enrollments.completed_bits},
+ * the times in the {@code enrollment_completion_times} side table. Checks and
+ * counts read only the bitmap; the times are read when they are returned.
+ * <p>
+ * Each subtopic gets an ordinal within its course, assigned at startup and after
+ * each catalog change in id order from the course's {@code next_ordinal}, so an
+ * ordinal never changes once given and is never given again after its subtopic
+ * is removed. When a catalog change leaves ordinals without a subtopic, their
+ * bits are cleared from the course's bitmaps. Writes lock the enrollment row and
+ * set {@code completed_count} to the bitmap's size in the same update.
+ * <p>
+ * The schema comes from {@code db/progress-bitmap.sql}. Enrollments whose
+ * bitmap is still null are imported from their {@code subtopic_progress} rows,
+ * at startup a page at a time or on their first write; the rows are left in place.
+ */
+@Component
+@ConditionalOnProperty(name = "progress.store", havingValue = "bitmap")
+@Slf4j
+public class BitmapProgressStore implements ProgressStore {
+    
+    private static final String SUBTOPICS_OF_COURSES = "FROM subtopics s JOIN topics t ON t.id = s.topic_id ";
+    private static final int IMPORT_PAGE = 1000;
+    // Ids per IN list, well below the bind parameter limits of PostgreSQL and H2
+    private static final int LOOKUP_CHUNK = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate writeTransaction;
+    
+    public BitmapProgressStore(JdbcTemplate jdbcTemplate,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PostConstruct
+    void start() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/progress-bitmap.sql")).execute(dataSource);
+        Set<String> courseIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT DISTINCT t.course_id " + SUBTOPICS_OF_COURSES + "WHERE s.ordinal IS NULL", String.class));
+        courseIds.addAll(jdbcTemplate.queryForList("SELECT id FROM courses WHERE next_ordinal IS NULL", String.class));
+        assignOrdinals(courseIds);
+        importRows();
+    }
+    
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        assignOrdinals(event.getCourseIds());
+    }
+    
+    @Override
+    public Optional<LocalDateTime> insertIfAbsent(Completion completion) {
+        return insert(List.of(completion)).isEmpty() ? Optional.empty() : Optional.of(completion.getCompletedAt());
+    }
+    
+    @Override
+    public int insertMissing(List<Completion> completions) {
+        return insert(completions).size();
+    }
+    
+    @Override
+    public Optional<LocalDateTime> completedAt(long userId, long subtopicId) {
+        return Optional.ofNullable(completionTimes(userId, List.of(subtopicId)).get(subtopicId));
+    }
+    
+    @Override
+    public Map<Long, LocalDateTime> completionTimes(long userId, Collection<Long> subtopicIds) {
+        Map<Long, SubtopicOrdinal> ordinals = ordinals(subtopicIds);
+        Set<String> courseIds = new HashSet<>();
+        ordinals.values().forEach(ordinal -> courseIds.add(ordinal.getCourseId()));
+        Map<String, CompletionBitmap> bitmaps = bitmaps(userId, courseIds);
+        
+        Map<Long, LocalDateTime> times = new HashMap<>();
+        ordinals.forEach((subtopicId, ordinal) -> {
+            CompletionBitmap bitmap = bitmaps.get(ordinal.getCourseId());
+            LocalDateTime completedAt = bitmap == null ? null : bitmap.completedAt(ordinal.getOrdinal());
+            if (completedAt != null) {
+                times.put(subtopicId, completedAt);
+            }
+        });
+        return times;
+    }
+    
+    @Override
+    public List<CompletedItemDTO> completedItems(long userId, String courseId) {
+        CompletionBitmap bitmap = bitmaps(userId, List.of(courseId)).get(courseId);
+        if (bitmap == null || bitmap.count() == 0) {
+            return List.of();
+        }
+        
+        Map<Integer, String[]> subtopics = new HashMap<>();
+        jdbcTemplate.query("SELECT s.ordinal, s.subtopic_id, s.title " + SUBTOPICS_OF_COURSES +
+                        "WHERE t.course_id = ? AND s.ordinal IS NOT NULL",
+                resultSet -> {
+                    subtopics.put(resultSet.getInt(1), new String[]{resultSet.getString(2), resultSet.getString(3)});
+                }, courseId);
+        
+        List<CompletedItemDTO> items = new ArrayList<>(bitmap.count());
+        bitmap.forEach((completedAt, ordinal) -> {
+            String[] subtopic = subtopics.get(ordinal);
+            if (subtopic != null) {
+                items.add(new CompletedItemDTO(subtopic[0], subtopic[1], completedAt));
+            }
+        });
+        // Completion order, as the row store lists them
+        items.sort(Comparator.comparing(CompletedItemDTO::getCompletedAt));
+        return items;
+    }
+    
+    @Override
+    public long countCompleted(long userId, String courseId) {
+        List<byte[]> bits = jdbcTemplate.query("SELECT completed_bits FROM enrollments WHERE user_id = ? AND course_id = ?",
+                (resultSet, row) -> resultSet.getBytes(1), userId, courseId);
+        return bits.isEmpty() ? 0 : CompletionBitmap.bits(bits.get(0)).cardinality();
+    }
+    
+    private List<Completion> insert(List<Completion> completions) {
+        Map<Long, SubtopicOrdinal> ordinals = ordinals(completions.stream().map(Completion::getSubtopicId).toList());
+        
+        // Enrollment rows are locked in (user, course) order, so concurrent batches cannot deadlock
+        Map<EnrollmentKey, List<Completion>> byEnrollment = new TreeMap<>(Comparator
+                .comparingLong(EnrollmentKey::getUserId).thenComparing(EnrollmentKey::getCourseId));
+        for (Completion completion : completions) {
+            SubtopicOrdinal ordinal = ordinals.get(completion.getSubtopicId());
+            if (ordinal != null) {
+                byEnrollment.computeIfAbsent(new EnrollmentKey(completion.getUserId(), ordinal.getCourseId()),
+                        key -> new ArrayList<>()).add(completion);
+            }
+        }
+        
+        List<Completion> inserted = new ArrayList<>();
+        byEnrollment.forEach((key, group) -> {
+            List<LockedEnrollment> locked = jdbcTemplate.query(
+                    "SELECT id, completed_bits FROM enrollments WHERE user_id = ? AND course_id = ? FOR UPDATE",
+                    (resultSet, row) -> new LockedEnrollment(resultSet.getLong(1), resultSet.getBytes(2)),
+                    key.getUserId(), key.getCourseId());
+            if (locked.isEmpty()) {
+                // Not enrolled; callers check enrollment before recording
+                return;
+            }
+            
+            LockedEnrollment enrollment = locked.get(0);
+            if (enrollment.getBits() != null) {
+                BitSet bits = CompletionBitmap.bits(enrollment.getBits());
+                if (group.stream().allMatch(completion -> bits.get(ordinals.get(completion.getSubtopicId()).getOrdinal()))) {
+                    return;
+                }
+            }
+            
+            CompletionBitmap bitmap = enrollment.getBits() != null
+                    ? CompletionBitmap.decode(enrollment.getBits(), times(enrollment.getId()))
+                    : fromRows(List.of(enrollment.getId())).getOrDefault(enrollment.getId(), CompletionBitmap.empty());
+            for (Completion completion : group) {
+                if (bitmap.add(ordinals.get(completion.getSubtopicId()).getOrdinal(), completion.getCompletedAt())) {
+                    inserted.add(completion);
+                }
+            }
+            write(enrollment.getId(), bitmap);
+        });
+        return inserted;
+    }
+    
+    private void write(long enrollmentId, CompletionBitmap bitmap) {
+        jdbcTemplate.update("UPDATE enrollments SET completed_bits = ?, completed_count = ? WHERE id = ?",
+                bitmap.encodeBits(), bitmap.count(), enrollmentId);
+        if (bitmap.count() == 0) {
+            // Left behind when clearing removed subtopics emptied the bitmap
+            jdbcTemplate.update("DELETE FROM enrollment_completion_times WHERE enrollment_id = ?", enrollmentId);
+            return;
+        }
+        // Safe without an upsert: the caller holds the enrollment row lock
+        byte[] times = bitmap.encodeTimes();
+        if (jdbcTemplate.update("UPDATE enrollment_completion_times SET completed_at = ? WHERE enrollment_id = ?",
+                times, enrollmentId) == 0) {
+            jdbcTemplate.update("INSERT INTO enrollment_completion_times (enrollment_id, completed_at) VALUES (?, ?)",
+                    enrollmentId, times);
+        }
+    }
+    
+    private byte[] times(long enrollmentId) {
+        List<byte[]> times = jdbcTemplate.query("SELECT completed_at FROM enrollment_completion_times WHERE enrollment_id = ?",
+                (resultSet, row) -> resultSet.getBytes(1), enrollmentId);
+        return times.isEmpty() ? null : times.get(0);
+    }
+    
+    /**
+     * Returns the user's bitmaps, with times, for the courses they are enrolled in.
+     */
+    private Map<String, CompletionBitmap> bitmaps(long userId, Collection<String> courseIds) {
+        Map<String, CompletionBitmap> bitmaps = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return bitmaps;
+        }
+        List<Object> args = new ArrayList<>(courseIds.size() + 1);
+        args.add(userId);
+        args.addAll(courseIds);
+        jdbcTemplate.query("SELECT e.course_id, e.completed_bits, c.completed_at FROM enrollments e " +
+                        "LEFT JOIN enrollment_completion_times c ON c.enrollment_id = e.id " +
+                        "WHERE e.user_id = ? AND e.course_id IN (" + placeholders(courseIds.size()) + ")",
+                resultSet -> {
+                    bitmaps.put(resultSet.getString(1), CompletionBitmap.decode(resultSet.getBytes(2), resultSet.getBytes(3)));
+                }, args.toArray());
+        return bitmaps;
+    }
+    
+    /**
+     * Returns the course and ordinal of each subtopic, assigning ordinals to those
+     * not given one yet. Ids that do not exist, or whose subtopic was removed
+     * meanwhile, are left out.
+     */
+    private Map<Long, SubtopicOrdinal> ordinals(Collection<Long> subtopicIds) {
+        Map<Long, SubtopicOrdinal> ordinals = new HashMap<>();
+        Set<String> unassigned = readOrdinals(subtopicIds, ordinals);
+        
+        // Subtopics added since the last catalog change; assigned now rather than waiting for its event
+        if (!unassigned.isEmpty()) {
+            assignOrdinals(unassigned);
+            List<Long> missing = subtopicIds.stream().filter(id -> !ordinals.containsKey(id)).toList();
+            readOrdinals(missing, ordinals);
+        }
+        return ordinals;
+    }
+    
+    // Adds the assigned ordinals to ordinals and returns the courses of the unassigned ones
+    private Set<String> readOrdinals(Collection<Long> subtopicIds, Map<Long, SubtopicOrdinal> ordinals) {
+        Set<String> unassigned = new HashSet<>();
+        List<Long> ids = new ArrayList<>(subtopicIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK, ids.size()));
+            jdbcTemplate.query("SELECT s.id, t.course_id, s.ordinal " + SUBTOPICS_OF_COURSES +
+                            "WHERE s.id IN (" + placeholders(chunk.size()) + ")",
+                    resultSet -> {
+                        int ordinal = resultSet.getInt(3);
+                        if (resultSet.wasNull()) {
+                            unassigned.add(resultSet.getString(2));
+                        } else {
+                            ordinals.put(resultSet.getLong(1), new SubtopicOrdinal(resultSet.getString(2), ordinal));
+                        }
+                    }, chunk.toArray());
+        }
+        return unassigned;
+    }
+    
+    private void assignOrdinals(Collection<String> courseIds) {
+        for (String courseId : new TreeSet<>(courseIds)) {
+            BitSet live = writeTransaction.execute(status -> assignOrdinals(courseId));
+            if (live != null) {
+                clearRemoved(courseId, live);
+            }
+        }
+    }
+    
+    /**
+     * Gives the course's unassigned subtopics the next ordinals. Returns the
+     * ordinals in use if some below {@code next_ordinal} have no subtopic any
+     * more, otherwise null.
+     */
+    private BitSet assignOrdinals(String courseId) {
+        // Locking the course serializes assignment across instances
+        List<Integer> stored = jdbcTemplate.query("SELECT next_ordinal FROM courses WHERE id = ? FOR UPDATE",
+                (resultSet, row) -> resultSet.getObject(1) == null ? null : resultSet.getInt(1), courseId);
+        if (stored.isEmpty()) {
+            return null;
+        }
+        
+        List<Long> unassigned = new ArrayList<>();
+        BitSet live = new BitSet();
+        jdbcTemplate.query("SELECT s.id, s.ordinal " + SUBTOPICS_OF_COURSES + "WHERE t.course_id = ? ORDER BY s.id",
+                resultSet -> {
+                    int ordinal = resultSet.getInt(2);
+                    if (resultSet.wasNull()) {
+                        unassigned.add(resultSet.getLong(1));
+                    } else {
+                        live.set(ordinal);
+                    }
+                }, courseId);
+        
+        // Courses assigned before next_ordinal existed continue after their highest ordinal
+        int start = stored.get(0) != null ? Math.max(stored.get(0), live.length()) : live.length();
+        int next = start;
+        List<Object[]> args = new ArrayList<>(unassigned.size());
+        for (Long subtopicId : unassigned) {
+            live.set(next);
+            args.add(new Object[]{next++, subtopicId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE subtopics SET ordinal = ? WHERE id = ?", args);
+        if (stored.get(0) == null || next != stored.get(0)) {
+            jdbcTemplate.update("UPDATE courses SET next_ordinal = ? WHERE id = ?", next, courseId);
+        }
+        return live.cardinality() < next ? live : null;
+    }
+    
+    /**
+     * Clears the bits of ordinals not in {@code live} from the course's bitmaps
+     * and recounts the enrollments they were cleared from. Enrollments are locked
+     * a page at a time in user order, the order writes lock them in.
+     */
+    private void clearRemoved(String courseId, BitSet live) {
+        long after = -1;
+        int cleared = 0;
+        while (true) {
+            long from = after;
+            List<Long> userIds = new ArrayList<>();
+            Integer changed = writeTransaction.execute(status -> {
+                int count = 0;
+                List<LockedEnrollment> page = jdbcTemplate.query(
+                        "SELECT id, completed_bits, user_id FROM enrollments WHERE course_id = ? AND user_id > ? " +
+                                "AND completed_bits IS NOT NULL ORDER BY user_id LIMIT " + IMPORT_PAGE + " FOR UPDATE",
+                        (resultSet, row) -> {
+                            userIds.add(resultSet.getLong(3));
+                            return new LockedEnrollment(resultSet.getLong(1), resultSet.getBytes(2));
+                        }, courseId, from);
+                for (LockedEnrollment enrollment : page) {
+                    BitSet removed = CompletionBitmap.bits(enrollment.getBits());
+                    removed.andNot(live);
+                    if (removed.isEmpty()) {
+                        continue;
+                    }
+                    CompletionBitmap bitmap = CompletionBitmap.decode(enrollment.getBits(), times(enrollment.getId()));
+                    bitmap.retain(live);
+                    write(enrollment.getId(), bitmap);
+                    count++;
+                }
+                return count;
+            });
+            if (userIds.isEmpty()) {
+                break;
+            }
+            cleared += changed;
+            after = userIds.get(userIds.size() - 1);
+        }
+        if (cleared > 0) {
+            log.info("Cleared completions of removed subtopics from {} enrollments in course {}", cleared, courseId);
+        }
+    }
+    
+    private void importRows() {
+        long after = 0;
+        int imported = 0;
+        while (true) {
+            long from = after;
+            List<Long> page = writeTransaction.execute(status -> importPage(from));
+            if (page.isEmpty()) {
+                break;
+            }
+            imported += page.size();
+            after = page.get(page.size() - 1);
+        }
+        if (imported > 0) {
+            log.info("Imported subtopic_progress rows into bitmaps for {} enrollments", imported);
+        }
+    }
+    
+    private List<Long> importPage(long after) {
+        List<Long> enrollmentIds = jdbcTemplate.queryForList(
+                "SELECT id FROM enrollments WHERE completed_bits IS NULL AND id > ? ORDER BY id LIMIT " + IMPORT_PAGE + " FOR UPDATE",
+                Long.class, after);
+        if (enrollmentIds.isEmpty()) {
+            return enrollmentIds;
+        }
+        
+        Map<Long, CompletionBitmap> bitmaps = fromRows(enrollmentIds);
+        List<Object[]> enrollments = new ArrayList<>(enrollmentIds.size());
+        List<Object[]> times = new ArrayList<>(bitmaps.size());
+        for (Long enrollmentId : enrollmentIds) {
+            CompletionBitmap bitmap = bitmaps.getOrDefault(enrollmentId, CompletionBitmap.empty());
+            enrollments.add(new Object[]{bitmap.encodeBits(), bitmap.count(), enrollmentId});
+            if (bitmap.count() > 0) {
+                times.add(new Object[]{enrollmentId, bitmap.encodeTimes()});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE enrollments SET completed_bits = ?, completed_count = ? WHERE id = ?", enrollments);
+        jdbcTemplate.batchUpdate("INSERT INTO enrollment_completion_times (enrollment_id, completed_at) VALUES (?, ?)", times);
+        return enrollmentIds;
+    }
+    
+    /**
+     * Builds the bitmaps of not yet imported enrollments from their
+     * {@code subtopic_progress} rows. Enrollments without rows are left out.
+     */
+    private Map<Long, CompletionBitmap> fromRows(List<Long> enrollmentIds) {
+        Map<Long, CompletionBitmap> bitmaps = new HashMap<>();
+        jdbcTemplate.query("SELECT e.id, s.ordinal, p.completed_at FROM enrollments e " +
+                        "JOIN subtopic_progress p ON p.user_id = e.user_id AND p.completed = TRUE " +
+                        "JOIN subtopics s ON s.id = p.subtopic_id " +
+                        "JOIN topics t ON t.id = s.topic_id AND t.course_id = e.course_id " +
+                        "WHERE s.ordinal IS NOT NULL AND e.id IN (" + placeholders(enrollmentIds.size()) + ")",
+                resultSet -> {
+                    bitmaps.computeIfAbsent(resultSet.getLong(1), id -> CompletionBitmap.empty())
+                            .add(resultSet.getInt(2), resultSet.getTimestamp(3).toLocalDateTime());
+                }, enrollmentIds.toArray());
+        return bitmaps;
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    @Value
+    private static class SubtopicOrdinal {
+        String courseId;
+        int ordinal;
+    }
+    
+    @Value
+    private static class EnrollmentKey {
+        long userId;
+        String courseId;
+    }
+    
+    @Value
+    private static class LockedEnrollment {
+        long id;
+        byte[] bits;
+    }
+}
@@ -0,0 +1,15 @@
+package com.courseplatform.progress;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's completion of a subtopic, by primary keys.
+ */
+@Value
+public class Completion {
+    long userId;
+    long subtopicId;
+    LocalDateTime completedAt;
+}
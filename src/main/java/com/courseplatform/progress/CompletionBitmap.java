@@ -0,0 +1,145 @@
+package com.courseplatform.progress;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The subtopics one enrollment has completed: a bitmap over the course's
+ * subtopic ordinals, plus the completion times, one per set bit in ordinal
+ * order.
+ * <p>
+ * Stored form: the bitmap as {@link BitSet#toByteArray()} (a bit per ordinal,
+ * trailing zero bytes dropped) and the times as big-endian epoch microseconds,
+ * eight bytes each. Ordinals are dense per course, so a course of a few hundred
+ * subtopics needs a few dozen bytes of bitmap.
+ */
+final class CompletionBitmap {
+    
+    private static final long MICROS_PER_SECOND = 1_000_000;
+    
+    private final BitSet bits;
+    private long[] times;
+    
+    private CompletionBitmap(BitSet bits, long[] times) {
+        this.bits = bits;
+        this.times = times;
+    }
+    
+    static CompletionBitmap empty() {
+        return new CompletionBitmap(new BitSet(), new long[0]);
+    }
+    
+    /**
+     * Decodes the stored form; {@code null} arrays read as empty.
+     */
+    static CompletionBitmap decode(byte[] bits, byte[] times) {
+        BitSet decoded = bits(bits);
+        long[] decodedTimes = new long[times == null ? 0 : times.length / Long.BYTES];
+        if (times != null) {
+            ByteBuffer.wrap(times).asLongBuffer().get(decodedTimes);
+        }
+        if (decodedTimes.length != decoded.cardinality()) {
+            throw new IllegalStateException("Completion bitmap has " + decoded.cardinality() + " bits but "
+                    + decodedTimes.length + " times");
+        }
+        return new CompletionBitmap(decoded, decodedTimes);
+    }
+    
+    /**
+     * Decodes just the bitmap, for membership checks and counts.
+     */
+    static BitSet bits(byte[] bits) {
+        return bits == null ? new BitSet() : BitSet.valueOf(bits);
+    }
+    
+    boolean contains(int ordinal) {
+        return bits.get(ordinal);
+    }
+    
+    int count() {
+        return times.length;
+    }
+    
+    LocalDateTime completedAt(int ordinal) {
+        return bits.get(ordinal) ? toDateTime(times[rank(ordinal)]) : null;
+    }
+    
+    /**
+     * Marks the ordinal completed at {@code completedAt}; returns false, keeping
+     * the first time, if it already was.
+     */
+    boolean add(int ordinal, LocalDateTime completedAt) {
+        if (bits.get(ordinal)) {
+            return false;
+        }
+        int rank = rank(ordinal);
+        long[] grown = new long[times.length + 1];
+        System.arraycopy(times, 0, grown, 0, rank);
+        grown[rank] = toMicros(completedAt);
+        System.arraycopy(times, rank, grown, rank + 1, times.length - rank);
+        times = grown;
+        bits.set(ordinal);
+        return true;
+    }
+    
+    /**
+     * Drops the completions of ordinals not set in {@code live}; returns whether
+     * there were any.
+     */
+    boolean retain(BitSet live) {
+        BitSet removed = (BitSet) bits.clone();
+        removed.andNot(live);
+        if (removed.isEmpty()) {
+            return false;
+        }
+        long[] kept = new long[times.length - removed.cardinality()];
+        int index = 0;
+        int keptIndex = 0;
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            if (live.get(ordinal)) {
+                kept[keptIndex++] = times[index];
+            }
+            index++;
+        }
+        times = kept;
+        bits.and(live);
+        return true;
+    }
+    
+    /**
+     * Passes each completion time with its ordinal, in ordinal order.
+     */
+    void forEach(ObjIntConsumer<LocalDateTime> action) {
+        int index = 0;
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            action.accept(toDateTime(times[index++]), ordinal);
+        }
+    }
+    
+    byte[] encodeBits() {
+        return bits.toByteArray();
+    }
+    
+    byte[] encodeTimes() {
+        ByteBuffer buffer = ByteBuffer.allocate(times.length * Long.BYTES);
+        buffer.asLongBuffer().put(times);
+        return buffer.array();
+    }
+    
+    // Completions before the ordinal, i.e. its index in times
+    private int rank(int ordinal) {
+        return ordinal == 0 ? 0 : bits.get(0, ordinal).cardinality();
+    }
+    
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / 1000;
+    }
+    
+    private static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+    }
+}
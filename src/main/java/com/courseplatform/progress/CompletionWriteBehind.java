@@ -0,0 +1,400 @@
+package com.courseplatform.progress;
+
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for subtopic completions ({@code progress.write-behind.enabled=true}).
+ * <p>
+ * A completion is acknowledged once it is appended to the local
+ * {@link ProgressJournal} and held in memory, coalesced per (user, subtopic).
+ * Appends are group-committed: callers queue their records and wait while one
+ * journal thread writes whatever has queued up and forces it to disk once, so
+ * concurrent completions share an fsync rather than taking turns.
+ * Buffered completions are written to the {@link ProgressStore} every
+ * {@code flush-interval-ms}, or as soon as {@code batch-size} are waiting.
+ * A journal segment is deleted only after everything in it has
+ * been committed; segments left by a crash are replayed at startup.
+ * <p>
+ * A batch that fails for lack of a database is kept and retried whole. One that
+ * the database refuses is retried in chunks, and a failing chunk row by row; a
+ * row refused on its own (say, a subtopic deleted since) is logged and moved to
+ * the journal's rejected file, so it cannot hold back the rest.
+ */
+@Component
+@Slf4j
+public class CompletionWriteBehind {
+    
+    private static final int RETRY_CHUNK_SIZE = 50;
+    
+    private final ProgressStore progressStore;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final ProgressJournal journal;
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService journalWriter;
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Object flushLock = new Object();
+    // Held for every journal access; taken before this, never while holding it
+    private final Object journalLock = new Object();
+    
+    // Guarded by this
+    private Map<Key, LocalDateTime> pending = new HashMap<>();
+    private Map<Key, LocalDateTime> inFlight = Map.of();
+    private final Map<Key, Append> appending = new HashMap<>();
+    private boolean closed;
+    
+    public CompletionWriteBehind(ProgressStore progressStore,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${progress.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${progress.write-behind.flush-interval-ms:500}") long flushIntervalMs,
+                                 @Value("${progress.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${progress.write-behind.journal-dir:data/progress-journal}") String journalDir,
+                                 @Value("${progress.write-behind.journal-fsync:true}") boolean fsync) throws IOException {
+        this.progressStore = progressStore;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        if (!enabled) {
+            this.journal = null;
+            this.flusher = null;
+            this.journalWriter = null;
+            return;
+        }
+        
+        this.journal = new ProgressJournal(Path.of(journalDir), fsync);
+        for (ProgressJournal.Entry entry : journal.open()) {
+            pending.putIfAbsent(new Key(entry.getUserId(), entry.getSubtopicId()), entry.getCompletedAt());
+        }
+        if (!pending.isEmpty()) {
+            log.info("Replayed {} unflushed completions from {}", pending.size(), journalDir);
+        }
+        
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "progress-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        this.journalWriter = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "progress-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        journalWriter.execute(this::writeAppends);
+        log.info("Progress write-behind enabled: flush every {} ms or {} completions, journal in {}",
+                flushIntervalMs, this.batchSize, journalDir);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Records that the user completed the subtopic and returns the completion
+     * time once it is in the journal; if a completion is already buffered,
+     * returns its time instead. Call it outside any transaction: it may wait for
+     * the journal's next fsync.
+     */
+    public LocalDateTime complete(long userId, long subtopicId) {
+        Append append;
+        synchronized (this) {
+            Key key = new Key(userId, subtopicId);
+            LocalDateTime buffered = pending.containsKey(key) ? pending.get(key) : inFlight.get(key);
+            if (buffered != null) {
+                return buffered;
+            }
+            
+            if (closed) {
+                throw new IllegalStateException("Progress write-behind is shut down");
+            }
+            append = appending.get(key);
+            if (append == null) {
+                // Microseconds, as kept by the journal and the database
+                append = new Append(key, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+                appending.put(key, append);
+                appends.add(append);
+            }
+        }
+        try {
+            append.written.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return append.completedAt;
+    }
+    
+    /**
+     * Returns the user's completions not yet committed to the database, by
+     * subtopic primary key. Read it before reading the store, so that a
+     * completion flushed in between is found in one or the other.
+     */
+    public synchronized Map<Long, LocalDateTime> buffered(long userId) {
+        Map<Long, LocalDateTime> buffered = new HashMap<>();
+        inFlight.forEach((key, completedAt) -> {
+            if (key.userId == userId) {
+                buffered.put(key.subtopicId, completedAt);
+            }
+        });
+        pending.forEach((key, completedAt) -> {
+            if (key.userId == userId) {
+                buffered.put(key.subtopicId, completedAt);
+            }
+        });
+        return buffered;
+    }
+    
+    /**
+     * Writes every buffered completion to the database, returning once they are
+     * committed (including any flush already running).
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<Key, LocalDateTime> batch;
+            long activeSegment;
+            // Completions reach pending only after their records are written, so all of batch is below the new segment
+            synchronized (journalLock) {
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    batch = pending;
+                    inFlight = batch;
+                    pending = new HashMap<>();
+                }
+                activeSegment = journal.rotate();
+            }
+            
+            List<Completion> completions = new ArrayList<>(batch.size());
+            batch.forEach((key, completedAt) -> completions.add(new Completion(key.userId, key.subtopicId, completedAt)));
+            List<Completion> rejected = new ArrayList<>();
+            try {
+                int inserted = insert(completions, rejected);
+                log.debug("Flushed {} completions ({} new rows)", batch.size(), inserted);
+            } catch (RuntimeException e) {
+                synchronized (journalLock) {
+                    reject(rejected, batch);
+                    synchronized (this) {
+                        batch.forEach(pending::putIfAbsent);
+                        inFlight = Map.of();
+                    }
+                }
+                throw e;
+            }
+            
+            synchronized (journalLock) {
+                // Deleting the segments below drops the rejected rows from the journal, so only once they are kept
+                boolean kept = reject(rejected, batch);
+                synchronized (this) {
+                    inFlight = Map.of();
+                    if (!kept) {
+                        batch.forEach(pending::putIfAbsent);
+                        return;
+                    }
+                }
+                try {
+                    journal.deleteBefore(activeSegment);
+                } catch (IOException e) {
+                    // Harmless: replaying committed completions inserts nothing
+                    log.warn("Could not delete flushed progress journal segments", e);
+                }
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdownNow();
+        journalWriter.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Final progress flush failed; completions stay in the journal", e);
+        }
+        synchronized (journalLock) {
+            journal.close();
+        }
+        failAppends(new IllegalStateException("Progress write-behind is shut down"));
+    }
+    
+    /**
+     * The journal thread: writes each group of queued completions, forces them
+     * to disk once, then buffers them and releases their callers.
+     */
+    private void writeAppends() {
+        List<Append> group = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            appends.drainTo(group);
+            RuntimeException failure = null;
+            boolean full = false;
+            synchronized (journalLock) {
+                try {
+                    for (Append append : group) {
+                        journal.append(append.key.userId, append.key.subtopicId, append.completedAt);
+                    }
+                    journal.force();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+                synchronized (this) {
+                    for (Append append : group) {
+                        appending.remove(append.key);
+                        if (failure == null) {
+                            pending.put(append.key, append.completedAt);
+                        }
+                    }
+                    full = pending.size() >= batchSize;
+                }
+            }
+            for (Append append : group) {
+                if (failure == null) {
+                    append.written.complete(null);
+                } else {
+                    append.written.completeExceptionally(failure);
+                }
+            }
+            group.clear();
+            if (full) {
+                flusher.execute(this::flushQuietly);
+            }
+        }
+    }
+    
+    private void failAppends(RuntimeException failure) {
+        synchronized (this) {
+            closed = true;
+            appending.clear();
+        }
+        List<Append> left = new ArrayList<>();
+        appends.drainTo(left);
+        left.forEach(append -> append.written.completeExceptionally(failure));
+    }
+    
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Progress flush failed; retrying on the next tick", e);
+        }
+    }
+    
+    /**
+     * Inserts the completions, each chunk in its own transaction once the whole
+     * batch has failed. Rows the database refuses on their own are added to
+     * {@code rejected}; a failure to reach the database is thrown.
+     */
+    private int insert(List<Completion> completions, List<Completion> rejected) {
+        try {
+            return writeTransaction.execute(status -> progressStore.insertMissing(completions));
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (completions.size() == 1) {
+                Completion completion = completions.get(0);
+                log.warn("Rejecting completion of subtopic {} by user {}: {}",
+                        completion.getSubtopicId(), completion.getUserId(), e.getMessage());
+                rejected.add(completion);
+                return 0;
+            }
+            
+            int chunkSize = completions.size() > RETRY_CHUNK_SIZE ? RETRY_CHUNK_SIZE : 1;
+            log.warn("Writing {} completions failed; retrying in groups of {}", completions.size(), chunkSize, e);
+            int inserted = 0;
+            for (int from = 0; from < completions.size(); from += chunkSize) {
+                inserted += insert(completions.subList(from, Math.min(from + chunkSize, completions.size())), rejected);
+            }
+            return inserted;
+        }
+    }
+    
+    /**
+     * Moves the rejected completions out of {@code batch} and into the journal's
+     * rejected file. Returns false, leaving the batch unchanged, if the file
+     * cannot be written.
+     */
+    private boolean reject(List<Completion> rejected, Map<Key, LocalDateTime> batch) {
+        if (rejected.isEmpty()) {
+            return true;
+        }
+        List<ProgressJournal.Entry> entries = new ArrayList<>(rejected.size());
+        for (Completion completion : rejected) {
+            entries.add(new ProgressJournal.Entry(completion.getUserId(), completion.getSubtopicId(), completion.getCompletedAt()));
+        }
+        try {
+            journal.reject(entries);
+        } catch (IOException e) {
+            log.error("Could not write {} rejected completions to {}; keeping them buffered",
+                    rejected.size(), journal.rejectedPath(), e);
+            return false;
+        }
+        for (Completion completion : rejected) {
+            batch.remove(new Key(completion.getUserId(), completion.getSubtopicId()));
+        }
+        log.warn("Moved {} rejected completions to {}", rejected.size(), journal.rejectedPath());
+        return true;
+    }
+    
+    // No connection, lock timeouts and the like: the rows may be fine, so they are retried whole
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class Append {
+        private final Key key;
+        private final LocalDateTime completedAt;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+    }
+    
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final long userId;
+        private final long subtopicId;
+    }
+}
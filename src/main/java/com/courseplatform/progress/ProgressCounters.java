@@ -0,0 +1,57 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.EnrollmentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the counters behind the progress summary: the subtopic total on
+ * each course and the completed count on each enrollment.
+ * <p>
+ * Completed counts are kept by the {@link ProgressStore} as completions are
+ * recorded. Course totals are recounted when a {@link CatalogChangedEvent}
+ * arrives. Counters left null, for rows written before the columns existed or
+ * courses not yet recounted, are counted once at startup; readers fall back to
+ * counting until then.
+ */
+@Component
+@Slf4j
+public class ProgressCounters {
+    
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate writeTransaction;
+    
+    public ProgressCounters(CourseRepository courseRepository,
+                            EnrollmentRepository enrollmentRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PostConstruct
+    void backfill() {
+        writeTransaction.executeWithoutResult(status -> {
+            int courses = courseRepository.countMissingSubtopicTotals();
+            int enrollments = enrollmentRepository.countMissingCompletions();
+            if (courses > 0 || enrollments > 0) {
+                log.info("Progress counters backfilled for {} courses and {} enrollments", courses, enrollments);
+            }
+        });
+    }
+    
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Runs after the catalog transaction committed, so the new subtopics are visible
+        writeTransaction.executeWithoutResult(status -> courseRepository.recountSubtopics(event.getCourseIds()));
+    }
+}
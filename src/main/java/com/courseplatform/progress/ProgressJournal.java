@@ -0,0 +1,216 @@
+package com.courseplatform.progress;
+
+import lombok.Value;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local log of acknowledged completions that may not be in the
+ * database yet.
+ * <p>
+ * Records are written to numbered segment files. Rotating starts a new segment,
+ * so the older ones can be deleted once everything they hold has been committed.
+ * Each record is checksummed, and replay stops at the first torn or corrupt
+ * record of a segment.
+ * <p>
+ * Completions the database refuses are moved to a separate rejected file in the
+ * same record format, kept for inspection and never replayed.
+ * <p>
+ * Not thread-safe; {@link CompletionWriteBehind} serializes access.
+ */
+class ProgressJournal implements Closeable {
+    
+    private static final String SEGMENT_PREFIX = "progress-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String REJECTED_FILE = "rejected.journal";
+    // userId, subtopicId, completedAt (epoch micros, UTC wall clock), CRC32 of the three
+    private static final int RECORD_BYTES = 3 * Long.BYTES + Integer.BYTES;
+    
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private long segment;
+    private FileChannel channel;
+    
+    ProgressJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+    
+    /**
+     * Reads every existing segment in order and opens a new segment for appends.
+     * Must be called once, before any other method.
+     */
+    List<Entry> open() throws IOException {
+        Files.createDirectories(directory);
+        List<Entry> entries = new ArrayList<>();
+        long last = 0;
+        for (long existing : segments()) {
+            readSegment(segmentPath(existing), entries);
+            last = existing;
+        }
+        segment = last;
+        startSegment(last + 1);
+        if (entries.isEmpty()) {
+            deleteBefore(segment);
+        }
+        return entries;
+    }
+    
+    /**
+     * Appends a record; it is durable only after the next {@link #force()}.
+     */
+    void append(long userId, long subtopicId, LocalDateTime completedAt) {
+        try {
+            write(channel, userId, subtopicId, completedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to progress journal " + segmentPath(segment), e);
+        }
+    }
+    
+    /**
+     * Forces the records appended so far to disk, if fsync is enabled.
+     */
+    void force() {
+        if (!fsync) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not sync progress journal " + segmentPath(segment), e);
+        }
+    }
+    
+    /**
+     * Appends the entries to the rejected file.
+     */
+    void reject(List<Entry> entries) throws IOException {
+        try (FileChannel rejected = FileChannel.open(rejectedPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Entry entry : entries) {
+                write(rejected, entry.getUserId(), entry.getSubtopicId(), entry.getCompletedAt());
+            }
+            rejected.force(false);
+        }
+    }
+    
+    Path rejectedPath() {
+        return directory.resolve(REJECTED_FILE);
+    }
+    
+    /**
+     * Closes the active segment and starts the next one, returning its number.
+     * Everything appended before the call is in segments numbered below it.
+     */
+    long rotate() {
+        try {
+            startSegment(segment + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate progress journal in " + directory, e);
+        }
+        return segment;
+    }
+    
+    /**
+     * Deletes the segments numbered below {@code active}.
+     */
+    void deleteBefore(long active) throws IOException {
+        for (long existing : segments()) {
+            if (existing < active) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private void startSegment(long number) throws IOException {
+        FileChannel next = FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        close();
+        channel = next;
+        segment = number;
+    }
+    
+    private void write(FileChannel target, long userId, long subtopicId, LocalDateTime completedAt) throws IOException {
+        CRC32 crc = new CRC32();
+        record.clear();
+        record.putLong(userId).putLong(subtopicId).putLong(toMicros(completedAt));
+        crc.update(record.array(), 0, 3 * Long.BYTES);
+        record.putInt((int) crc.getValue()).flip();
+        while (record.hasRemaining()) {
+            target.write(record);
+        }
+    }
+    
+    /**
+     * Reads the records of a segment, or of the rejected file, up to the first
+     * torn or corrupt one.
+     */
+    static void readSegment(Path path, List<Entry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_BYTES) {
+            int start = buffer.position();
+            long userId = buffer.getLong();
+            long subtopicId = buffer.getLong();
+            long micros = buffer.getLong();
+            crc.reset();
+            crc.update(buffer.array(), start, 3 * Long.BYTES);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            entries.add(new Entry(userId, subtopicId, fromMicros(micros)));
+        }
+    }
+    
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+    
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+    
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+    
+    @Value
+    static class Entry {
+        long userId;
+        long subtopicId;
+        LocalDateTime completedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.dto.response.CompletedItemDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where subtopic completions are kept. Selected with the {@code progress.store}
+ * property: {@code rows} (one row per completion) or {@code bitmap} (one bitmap
+ * per enrollment). Writes keep the enrollment's {@code completed_count} in step.
+ */
+public interface ProgressStore {
+    
+    /**
+     * Records the completion unless the user already completed the subtopic.
+     * Returns the recorded completion time, or empty if one existed.
+     */
+    Optional<LocalDateTime> insertIfAbsent(Completion completion);
+    
+    /**
+     * Records the completions the users have not made yet and returns how many
+     * were recorded. (User, subtopic) pairs must not repeat.
+     */
+    int insertMissing(List<Completion> completions);
+    
+    Optional<LocalDateTime> completedAt(long userId, long subtopicId);
+    
+    /**
+     * Returns the completion times of those of {@code subtopicIds} (primary
+     * keys) the user has completed.
+     */
+    Map<Long, LocalDateTime> completionTimes(long userId, Collection<Long> subtopicIds);
+    
+    List<CompletedItemDTO> completedItems(long userId, String courseId);
+    
+    long countCompleted(long userId, String courseId);
+}
@@ -0,0 +1,141 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.dto.response.CompletedItemDTO;
+import com.courseplatform.entity.SubtopicProgress;
+import com.courseplatform.repository.InsertIfAbsent;
+import com.courseplatform.repository.SubtopicProgressRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps completions as {@code subtopic_progress} rows, one per completed
+ * subtopic. Rows are inserted with plain JDBC. Each
+ * statement skips (user, subtopic) pairs that already have a row, atomically
+ * (see {@link InsertIfAbsent}), so duplicate clicks and replays never hit the
+ * unique constraint. Bulk inserts write up to {@value #INSERT_CHUNK} rows per
+ * statement.
+ * <p>
+ * The rows actually inserted are added to the owning enrollments'
+ * {@code completed_count} in the same transaction, as an increment, so
+ * concurrent writers never overwrite each other's counts.
+ */
+@Component
+@ConditionalOnProperty(name = "progress.store", havingValue = "rows", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RowProgressStore implements ProgressStore {
+    
+    private static final List<String> COLUMNS = List.of("user_id BIGINT", "subtopic_id BIGINT", "completed BOOLEAN", "completed_at TIMESTAMP");
+    private static final List<String> KEY = List.of("user_id", "subtopic_id");
+    private static final List<String> RETURNING = List.of("user_id", "subtopic_id", "completed_at");
+    // %s is the subtopic id placeholders
+    private static final String FIND_COURSES = "SELECT s.id, t.course_id FROM subtopics s JOIN topics t ON t.id = s.topic_id "
+            + "WHERE s.id IN (%s)";
+    private static final String COUNT_COMPLETIONS = "UPDATE enrollments SET completed_count = completed_count + ? "
+            + "WHERE user_id = ? AND course_id = ?";
+    // Rows per statement, well below the bind parameter limits of PostgreSQL and H2
+    private static final int INSERT_CHUNK = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final InsertIfAbsent insertIfAbsent;
+    private final SubtopicProgressRepository progressRepository;
+    
+    @Override
+    public Optional<LocalDateTime> insertIfAbsent(Completion completion) {
+        List<Completion> inserted = insert(List.of(completion));
+        return inserted.isEmpty() ? Optional.empty() : Optional.of(inserted.get(0).getCompletedAt());
+    }
+    
+    @Override
+    public int insertMissing(List<Completion> completions) {
+        int inserted = 0;
+        for (int from = 0; from < completions.size(); from += INSERT_CHUNK) {
+            inserted += insert(completions.subList(from, Math.min(from + INSERT_CHUNK, completions.size()))).size();
+        }
+        return inserted;
+    }
+    
+    @Override
+    public Optional<LocalDateTime> completedAt(long userId, long subtopicId) {
+        return progressRepository.findByUserIdAndSubtopicId(userId, subtopicId).map(SubtopicProgress::getCompletedAt);
+    }
+    
+    @Override
+    public Map<Long, LocalDateTime> completionTimes(long userId, Collection<Long> subtopicIds) {
+        Map<Long, LocalDateTime> times = new HashMap<>();
+        for (Object[] row : progressRepository.findCompletionTimes(userId, subtopicIds)) {
+            times.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        return times;
+    }
+    
+    @Override
+    public List<CompletedItemDTO> completedItems(long userId, String courseId) {
+        return progressRepository.findCompletedItems(userId, courseId);
+    }
+    
+    @Override
+    public long countCompleted(long userId, String courseId) {
+        return progressRepository.countCompleted(userId, courseId);
+    }
+    
+    private List<Completion> insert(List<Completion> completions) {
+        List<Object> args = new ArrayList<>(COLUMNS.size() * completions.size());
+        for (Completion completion : completions) {
+            args.add(completion.getUserId());
+            args.add(completion.getSubtopicId());
+            args.add(true);
+            args.add(Timestamp.valueOf(completion.getCompletedAt()));
+        }
+        List<Completion> inserted = insertIfAbsent.insert("subtopic_progress", COLUMNS, KEY, RETURNING, completions.size(),
+                (resultSet, row) -> new Completion(resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getTimestamp(3).toLocalDateTime()),
+                args.toArray());
+        countCompletions(inserted);
+        return inserted;
+    }
+    
+    /**
+     * Adds the inserted rows to their enrollments' counts: one query for the
+     * courses of the subtopics, then one batch of updates, one per (user,
+     * course), in key order so concurrent writers lock enrollments alike.
+     */
+    private void countCompletions(List<Completion> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Set<Long> subtopicIds = new LinkedHashSet<>();
+        for (Completion completion : inserted) {
+            subtopicIds.add(completion.getSubtopicId());
+        }
+        Map<Long, String> courses = new HashMap<>();
+        jdbcTemplate.query(String.format(FIND_COURSES, String.join(", ", Collections.nCopies(subtopicIds.size(), "?"))),
+                (RowCallbackHandler) resultSet -> courses.put(resultSet.getLong(1), resultSet.getString(2)),
+                subtopicIds.toArray());
+        
+        Map<Long, Map<String, Integer>> counts = new TreeMap<>();
+        for (Completion completion : inserted) {
+            counts.computeIfAbsent(completion.getUserId(), userId -> new TreeMap<>())
+                    .merge(courses.get(completion.getSubtopicId()), 1, Integer::sum);
+        }
+        List<Object[]> updates = new ArrayList<>();
+        counts.forEach((userId, byCourse) -> byCourse.forEach((courseId, count) ->
+                updates.add(new Object[]{count, userId, courseId})));
+        jdbcTemplate.batchUpdate(COUNT_COMPLETIONS, updates);
+    }
+}
@@ -1,23 +1,71 @@
 package com.courseplatform.repository;
 
+import com.courseplatform.dto.response.CourseListDTO;
 import com.courseplatform.entity.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
     
-    @Query("SELECT DISTINCT c FROM Course c " +
-           "LEFT JOIN FETCH c.topics t " +
-           "LEFT JOIN FETCH t.subtopics s " +
-           "WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(t.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(s.content) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Course> searchCourses(@Param("query") String query);
+    // Course list rows with topic/subtopic counts; the filters below are spliced between these
+    String SUMMARY_SELECT = "SELECT new com.courseplatform.dto.response.CourseListDTO(" +
+            "c.id, c.title, c.description, CAST(COUNT(DISTINCT t.id) AS Integer), CAST(COUNT(s.id) AS Integer)) " +
+            "FROM Course c LEFT JOIN c.topics t LEFT JOIN t.subtopics s ";
+    String SUMMARY_GROUP = "GROUP BY c.id, c.title, c.description ";
+    
+    // Keyset pages: pass "" as the cursor keys (and title filter) for the first page
+    @Query(SUMMARY_SELECT +
+           "WHERE c.id > :afterId " +
+           "AND LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
+           SUMMARY_GROUP +
+           "ORDER BY c.id")
+    List<CourseListDTO> findCourseSummariesAfterId(@Param("afterId") String afterId,
+                                                   @Param("title") String title,
+                                                   Limit limit);
+    
+    @Query(SUMMARY_SELECT +
+           "WHERE (c.title > :afterTitle OR (c.title = :afterTitle AND c.id > :afterId)) " +
+           "AND LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
+           SUMMARY_GROUP +
+           "ORDER BY c.title, c.id")
+    List<CourseListDTO> findCourseSummariesAfterTitle(@Param("afterTitle") String afterTitle,
+                                                      @Param("afterId") String afterId,
+                                                      @Param("title") String title,
+                                                      Limit limit);
+    
+    @Query(SUMMARY_SELECT +
+           "WHERE c.id IN :courseIds " +
+           SUMMARY_GROUP)
+    List<CourseListDTO> findCourseSummariesByIdIn(@Param("courseIds") Collection<String> courseIds);
+    
+    // Rows of [courseId, enrollmentCount]; pass Long.MAX_VALUE and "" for the first page
+    @Query("SELECT c.id, COUNT(e.id) FROM Course c LEFT JOIN Enrollment e ON e.course = c " +
+           "WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%')) " +
+           "GROUP BY c.id " +
+           "HAVING COUNT(e.id) < :afterCount OR (COUNT(e.id) = :afterCount AND c.id > :afterId) " +
+           "ORDER BY COUNT(e.id) DESC, c.id")
+    List<Object[]> findEnrollmentCountsAfter(@Param("afterCount") long afterCount,
+                                             @Param("afterId") String afterId,
+                                             @Param("title") String title,
+                                             Limit limit);
+    
+    // Bulk updates: Hibernate evicts the cached courses itself
+    String COUNT_SUBTOPICS = "UPDATE Course c SET c.subtopicCount = " +
+            "(SELECT CAST(COUNT(s) AS Integer) FROM Subtopic s JOIN s.topic t WHERE t.course.id = c.id) ";
+    
+    @Modifying
+    @Query(COUNT_SUBTOPICS + "WHERE c.id IN :courseIds")
+    int recountSubtopics(@Param("courseIds") Collection<String> courseIds);
+    
+    @Modifying
+    @Query(COUNT_SUBTOPICS + "WHERE c.subtopicCount IS NULL")
+    int countMissingSubtopicTotals();
 }
@@ -1,15 +1,42 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Enrollment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentRepositoryCustom {
     Optional<Enrollment> findByUserIdAndCourseId(Long userId, String courseId);
     boolean existsByUserIdAndCourseId(Long userId, String courseId);
     List<Enrollment> findByUserId(Long userId);
+    
+    // Loads the course in the same statement; the user stays a proxy, which still knows its id
+    @EntityGraph(attributePaths = "course")
+    Optional<Enrollment> findWithCourseById(Long id);
+    
+    @Query("SELECT e.course.id FROM Enrollment e WHERE e.user.id = :userId AND e.course.id IN :courseIds")
+    List<String> findEnrolledCourseIds(@Param("userId") Long userId, @Param("courseIds") Collection<String> courseIds);
+    
+    // Rows of [courseId, enrollmentCount]
+    @Query("SELECT e.course.id, COUNT(e) FROM Enrollment e GROUP BY e.course.id")
+    List<Object[]> countEnrollmentsByCourse();
+    
+    // Rows of [courseId, enrollmentCount, completionCount], summed from the maintained per-enrollment counters
+    @Query("SELECT e.course.id, COUNT(e), SUM(e.completedCount) FROM Enrollment e GROUP BY e.course.id")
+    List<Object[]> countEnrollmentsAndCompletionsByCourse();
+    
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.completedCount = (SELECT CAST(COUNT(p) AS Integer) FROM SubtopicProgress p " +
+           "JOIN p.subtopic s JOIN s.topic t " +
+           "WHERE p.user.id = e.user.id AND t.course.id = e.course.id AND p.completed = true) " +
+           "WHERE e.completedCount IS NULL")
+    int countMissingCompletions();
 }
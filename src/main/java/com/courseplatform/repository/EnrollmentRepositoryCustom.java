@@ -0,0 +1,13 @@
+package com.courseplatform.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface EnrollmentRepositoryCustom {
+    
+    /**
+     * Enrolls the user in the course with one atomic statement. Returns the new
+     * enrollment id, or empty if the user was already enrolled.
+     */
+    Optional<Long> insertIfAbsent(Long userId, String courseId, LocalDateTime enrolledAt);
+}
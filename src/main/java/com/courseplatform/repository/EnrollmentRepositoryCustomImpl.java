@@ -0,0 +1,26 @@
+package com.courseplatform.repository;
+
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+    
+    private static final List<String> COLUMNS = List.of("user_id BIGINT", "course_id VARCHAR", "enrolled_at TIMESTAMP", "completed_count INTEGER");
+    private static final List<String> KEY = List.of("user_id", "course_id");
+    private static final List<String> RETURNING = List.of("id");
+    
+    private final InsertIfAbsent insertIfAbsent;
+    
+    @Override
+    public Optional<Long> insertIfAbsent(Long userId, String courseId, LocalDateTime enrolledAt) {
+        List<Long> ids = insertIfAbsent.insert("enrollments", COLUMNS, KEY, RETURNING, 1,
+                (resultSet, row) -> resultSet.getLong(1),
+                userId, courseId, Timestamp.valueOf(enrolledAt), 0);
+        return ids.isEmpty() ? Optional.empty() : Optional.of(ids.get(0));
+    }
+}
@@ -0,0 +1,112 @@
+package com.courseplatform.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * Builds single-statement "insert unless the key already exists" SQL that
+ * returns the rows it actually inserted, so a write needs one round trip and
+ * concurrent duplicates never reach the unique constraint.
+ * <p>
+ * PostgreSQL: {@code INSERT ... ON CONFLICT (key) DO NOTHING RETURNING ...}.
+ * H2 (local and test profiles): {@code SELECT ... FROM FINAL TABLE (MERGE INTO
+ * ... WHEN NOT MATCHED THEN INSERT ...)}. H2's merge can still lose a race to a
+ * concurrent insert of the same key, so there the statement is re-run, and then
+ * sees the committed row. If it keeps losing, the rows are inserted one by one
+ * and a row that still collides is reported as existing, like a skipped one.
+ */
+@Component
+public class InsertIfAbsent {
+    
+    private static final int H2_ATTEMPTS = 3;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    
+    public InsertIfAbsent(JdbcTemplate jdbcTemplate, DataSource dataSource) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.postgres = "PostgreSQL".equals(product);
+        if (!postgres && !"H2".equals(product)) {
+            throw new IllegalStateException("Atomic inserts are implemented for PostgreSQL and H2, not " + product);
+        }
+    }
+    
+    /**
+     * Inserts {@code rows} rows into {@code table}, skipping any whose
+     * {@code key} columns match an existing row, and maps the {@code returning}
+     * columns of the inserted rows. Columns are given as {@code "name SQL_TYPE"};
+     * {@code args} holds one value per column, row by row.
+     */
+    public <T> List<T> insert(String table, List<String> columns, List<String> key, List<String> returning,
+                              int rows, RowMapper<T> rowMapper, Object... args) {
+        String sql = sql(table, columns, key, returning, rows);
+        for (int attempt = 1; attempt <= H2_ATTEMPTS; attempt++) {
+            try {
+                return jdbcTemplate.query(sql, rowMapper, args);
+            } catch (DuplicateKeyException e) {
+                // A failed statement leaves an H2 transaction usable; PostgreSQL never gets here
+                if (postgres) {
+                    throw e;
+                }
+            }
+        }
+        return insertEach(table, columns, key, returning, rows, rowMapper, args);
+    }
+    
+    // Last resort on H2: a row that collides on its own was inserted by a concurrent transaction
+    private <T> List<T> insertEach(String table, List<String> columns, List<String> key, List<String> returning,
+                                   int rows, RowMapper<T> rowMapper, Object[] args) {
+        String sql = sql(table, columns, key, returning, 1);
+        List<T> inserted = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            Object[] rowArgs = Arrays.copyOfRange(args, row * columns.size(), (row + 1) * columns.size());
+            try {
+                inserted.addAll(jdbcTemplate.query(sql, rowMapper, rowArgs));
+            } catch (DuplicateKeyException e) {
+                // Exists, so the caller reads it like any skipped row
+            }
+        }
+        return inserted;
+    }
+    
+    private String sql(String table, List<String> columns, List<String> key, List<String> returning, int rows) {
+        List<String> names = columns.stream().map(column -> column.split(" ")[0]).collect(Collectors.toList());
+        String columnList = String.join(", ", names);
+        
+        if (postgres) {
+            String row = "(" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            return "INSERT INTO " + table + " (" + columnList + ") VALUES " +
+                    String.join(", ", Collections.nCopies(rows, row)) +
+                    " ON CONFLICT (" + String.join(", ", key) + ") DO NOTHING" +
+                    " RETURNING " + String.join(", ", returning);
+        }
+        
+        // H2 cannot infer parameter types inside a USING clause, hence the casts
+        String row = columns.stream()
+                .map(column -> "CAST(? AS " + column.substring(column.indexOf(' ') + 1) + ")")
+                .collect(Collectors.joining(", ", "(", ")"));
+        StringJoiner matches = new StringJoiner(" AND ");
+        for (String column : key) {
+            matches.add("t." + column + " = s." + column);
+        }
+        return "SELECT " + String.join(", ", returning) + " FROM FINAL TABLE (" +
+                "MERGE INTO " + table + " t USING (VALUES " + String.join(", ", Collections.nCopies(rows, row)) + ")" +
+                " s (" + columnList + ") ON " + matches +
+                " WHEN NOT MATCHED THEN INSERT (" + columnList + ")" +
+                " VALUES (" + names.stream().map(name -> "s." + name).collect(Collectors.joining(", ")) + "))";
+    }
+}
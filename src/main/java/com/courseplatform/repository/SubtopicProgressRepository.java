@@ -1,11 +1,13 @@
 package com.courseplatform.repository;
 
+import com.courseplatform.dto.response.CompletedItemDTO;
 import com.courseplatform.entity.SubtopicProgress;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +16,24 @@ public interface SubtopicProgressRepository extends JpaRepository<SubtopicProgre
     
     Optional<SubtopicProgress> findByUserIdAndSubtopicId(Long userId, Long subtopicId);
     
-    @Query("SELECT sp FROM SubtopicProgress sp " +
+    // Completed subtopics of one course, read in a single statement without loading entities
+    @Query("SELECT new com.courseplatform.dto.response.CompletedItemDTO(s.subtopicId, s.title, sp.completedAt) " +
+           "FROM SubtopicProgress sp " +
            "JOIN sp.subtopic s " +
            "JOIN s.topic t " +
-           "WHERE sp.user.id = :userId AND t.course.id = :courseId")
-    List<SubtopicProgress> findByUserIdAndCourseId(
+           "WHERE sp.user.id = :userId AND t.course.id = :courseId AND sp.completed = true " +
+           "ORDER BY sp.id")
+    List<CompletedItemDTO> findCompletedItems(
         @Param("userId") Long userId, 
         @Param("courseId") String courseId
     );
+    
+    @Query("SELECT COUNT(sp) FROM SubtopicProgress sp JOIN sp.subtopic s JOIN s.topic t " +
+           "WHERE sp.user.id = :userId AND t.course.id = :courseId AND sp.completed = true")
+    long countCompleted(@Param("userId") Long userId, @Param("courseId") String courseId);
+    
+    // Rows of [subtopic primary key, completedAt]
+    @Query("SELECT sp.subtopic.id, sp.completedAt FROM SubtopicProgress sp " +
+           "WHERE sp.user.id = :userId AND sp.subtopic.id IN :subtopicIds")
+    List<Object[]> findCompletionTimes(@Param("userId") Long userId, @Param("subtopicIds") Collection<Long> subtopicIds);
 }
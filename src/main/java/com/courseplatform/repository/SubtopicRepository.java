@@ -1,12 +1,31 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Subtopic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubtopicRepository extends JpaRepository<Subtopic, Long> {
+    // Hit on every completion; the result is the subtopic's key, resolved from the entity cache
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "subtopic-by-public-id")
+    })
     Optional<Subtopic> findBySubtopicId(String subtopicId);
+    Optional<Subtopic> findByTopicCourseIdAndSubtopicId(String courseId, String subtopicId);
+    List<Subtopic> findByTopicCourseIdInOrderByIdAsc(Collection<String> courseIds);
+    long countByTopicCourseId(String courseId);
+    List<Subtopic> findByTopicCourseIdAndIdIn(String courseId, Collection<Long> ids);
+    
+    // The topic is needed for the course id; fetched in the same statement
+    @EntityGraph(attributePaths = "topic")
+    List<Subtopic> findBySubtopicIdIn(Collection<String> subtopicIds);
 }
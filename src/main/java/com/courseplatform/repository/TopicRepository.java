@@ -4,6 +4,7 @@ import com.courseplatform.entity.Topic;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +12,5 @@ import java.util.Optional;
 public interface TopicRepository extends JpaRepository<Topic, Long> {
     List<Topic> findByCourseIdOrderByIdAsc(String courseId);
     Optional<Topic> findByTopicId(String topicId);
+    List<Topic> findByCourseIdInOrderByIdAsc(Collection<String> courseIds);
 }
@@ -0,0 +1,78 @@
+package com.courseplatform.search;
+
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Accumulated relevance of one course for a query. Only the best
+ * {@code maxMatches} fields are retained, so memory per course stays bounded
+ * however many of its fields match.
+ */
+public class CourseHits {
+    
+    /** Best first: higher score, then course id for a stable order. */
+    public static final Comparator<CourseHits> RANKING = Comparator
+            .comparingDouble(CourseHits::getScore).reversed()
+            .thenComparing(CourseHits::getCourseId);
+    
+    private static final Comparator<ScoredField> WORST_FIELD_FIRST = Comparator
+            .comparingDouble(ScoredField::getScore)
+            .thenComparing(scored -> -scored.getField().getId());
+    
+    @Getter
+    private final String courseId;
+    @Getter
+    private final String courseTitle;
+    @Getter
+    private double score;
+    @Getter
+    private int totalMatches;
+    
+    private final int maxMatches;
+    private final PriorityQueue<ScoredField> topFields;
+    
+    public CourseHits(String courseId, String courseTitle, int maxMatches) {
+        this.courseId = courseId;
+        this.courseTitle = courseTitle;
+        this.maxMatches = maxMatches;
+        this.topFields = new PriorityQueue<>(maxMatches + 1, WORST_FIELD_FIRST);
+    }
+    
+    /**
+     * Records a matching field. The field score is its weight damped by the
+     * number of occurrences: {@code weight * (1 + ln(tf))}.
+     */
+    public void add(IndexedField field, int termFrequency) {
+        double fieldScore = field.getField().getWeight() * (1 + Math.log(termFrequency));
+        score += fieldScore;
+        totalMatches++;
+        
+        topFields.offer(new ScoredField(field, fieldScore));
+        if (topFields.size() > maxMatches) {
+            topFields.poll();
+        }
+    }
+    
+    /** The retained fields in catalog order. */
+    public List<IndexedField> topFields() {
+        List<ScoredField> retained = new ArrayList<>(topFields);
+        retained.sort(Comparator.comparingInt(scored -> scored.getField().getId()));
+        
+        List<IndexedField> fields = new ArrayList<>(retained.size());
+        for (ScoredField scored : retained) {
+            fields.add(scored.getField());
+        }
+        return fields;
+    }
+    
+    @Value
+    private static class ScoredField {
+        IndexedField field;
+        double score;
+    }
+}
@@ -0,0 +1,112 @@
+package com.courseplatform.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searches the database on every request. Each query term is matched as a
+ * lower-cased substring with LIKE, the contract {@link QueryMatcher} verifies,
+ * so this engine finds what the in-memory index finds, mid-word fragments and
+ * stop words included. Only the matching fields are read, not whole courses.
+ * <p>
+ * On PostgreSQL ({@code search.trigram-index.enabled=true}) the LIKE conditions
+ * are served by {@code pg_trgm} GIN indexes; elsewhere (H2 for the local and
+ * test profiles) they scan.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseSearchEngine implements SearchEngine {
+    
+    // One branch per SearchField, in its order; %s is the condition on the field's text
+    private static final String NO_TOPIC = "CAST(NULL AS BIGINT), CAST(NULL AS VARCHAR(255)), ";
+    private static final String NO_SUBTOPIC = "CAST(NULL AS BIGINT), CAST(NULL AS VARCHAR(255)), CAST(NULL AS VARCHAR(255)), ";
+    private static final String COURSE_TITLE = "SELECT c.id, c.title, 0, " + NO_TOPIC + NO_SUBTOPIC
+            + "c.title FROM courses c WHERE %s";
+    private static final String COURSE_DESCRIPTION = "SELECT c.id, c.title, 1, " + NO_TOPIC + NO_SUBTOPIC
+            + "c.description FROM courses c WHERE %s";
+    private static final String TOPIC_TITLE = "SELECT c.id, c.title, 2, t.id, t.title, " + NO_SUBTOPIC
+            + "t.title FROM topics t JOIN courses c ON c.id = t.course_id WHERE %s";
+    private static final String SUBTOPIC_TITLE = "SELECT c.id, c.title, 3, t.id, t.title, s.id, s.subtopic_id, s.title, "
+            + "s.title FROM subtopics s JOIN topics t ON t.id = s.topic_id JOIN courses c ON c.id = t.course_id WHERE %s";
+    private static final String CONTENT = "SELECT c.id, c.title, 4, t.id, t.title, s.id, s.subtopic_id, s.title, "
+            + "s.content FROM subtopics s JOIN topics t ON t.id = s.topic_id JOIN courses c ON c.id = t.course_id WHERE %s";
+    // Catalog order: course, then its own fields, then each topic title followed by its subtopics
+    private static final String CATALOG_ORDER = " ORDER BY 1, 4 NULLS FIRST, 6 NULLS FIRST, 3";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    
+    @Value("${search.trigram-index.enabled:false}")
+    private boolean trigramIndexEnabled;
+    
+    @PostConstruct
+    void createTrigramIndexes() {
+        if (trigramIndexEnabled) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/trigram-search.sql")).execute(dataSource);
+            log.info("Trigram search indexes are in place");
+        }
+    }
+    
+    /**
+     * Returns the fields containing every query term, in catalog order.
+     */
+    @Override
+    public List<IndexedField> candidates(String query) {
+        List<String> terms = QueryMatcher.parseTerms(SearchTokenizer.fold(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        List<String> branches = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addBranch(branches, args, COURSE_TITLE, "c.title", terms);
+        addBranch(branches, args, COURSE_DESCRIPTION, "c.description", terms);
+        addBranch(branches, args, TOPIC_TITLE, "t.title", terms);
+        addBranch(branches, args, SUBTOPIC_TITLE, "s.title", terms);
+        addBranch(branches, args, CONTENT, "s.content", terms);
+        
+        SearchField[] kinds = SearchField.values();
+        List<IndexedField> fields = new ArrayList<>();
+        jdbcTemplate.query(String.join(" UNION ALL ", branches) + CATALOG_ORDER,
+                resultSet -> {
+                    String text = resultSet.getString(9);
+                    fields.add(new IndexedField(
+                            fields.size(),
+                            kinds[resultSet.getInt(3)],
+                            resultSet.getString(1),
+                            resultSet.getString(2),
+                            resultSet.getString(5),
+                            resultSet.getString(7),
+                            resultSet.getString(8),
+                            text,
+                            SearchTokenizer.fold(text)));
+                }, args.toArray());
+        return fields;
+    }
+    
+    private static void addBranch(List<String> branches, List<Object> args, String branch, String column, List<String> terms) {
+        List<String> conditions = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            conditions.add("LOWER(" + column + ") LIKE ? ESCAPE '!'");
+            args.add("%" + escapeLike(term) + "%");
+        }
+        branches.add(String.format(branch, String.join(" AND ", conditions)));
+    }
+    
+    private static String escapeLike(String term) {
+        return term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
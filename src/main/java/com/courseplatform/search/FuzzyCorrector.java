@@ -0,0 +1,135 @@
+package com.courseplatform.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Spelling correction against the index vocabulary.
+ * <p>
+ * Every vocabulary term is indexed by its character trigrams (padded with
+ * {@code '$'} at both ends). For an unknown query term, terms sharing enough
+ * trigrams are collected as candidates (one edit destroys at most three
+ * trigrams), filtered by length, and verified with a Levenshtein distance that
+ * stops as soon as the bound is exceeded. The closest term wins; ties go to the
+ * term found in more fields.
+ */
+public class FuzzyCorrector {
+    
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final char PAD = '$';
+    
+    private final String[] vocabulary;
+    private final int[] fieldFrequency;
+    private final Map<String, int[]> termsByTrigram;
+    
+    public FuzzyCorrector(String[] vocabulary, int[] fieldFrequency) {
+        this.vocabulary = vocabulary;
+        this.fieldFrequency = fieldFrequency;
+        
+        Map<String, List<Integer>> lists = new HashMap<>();
+        for (int t = 0; t < vocabulary.length; t++) {
+            for (String trigram : trigrams(vocabulary[t])) {
+                List<Integer> terms = lists.computeIfAbsent(trigram, g -> new ArrayList<>());
+                // A term may repeat a trigram; its ids are added in order, so compare with the last one
+                if (terms.isEmpty() || terms.get(terms.size() - 1) != t) {
+                    terms.add(t);
+                }
+            }
+        }
+        this.termsByTrigram = new HashMap<>(lists.size() * 2);
+        lists.forEach((trigram, terms) ->
+                termsByTrigram.put(trigram, terms.stream().mapToInt(Integer::intValue).toArray()));
+    }
+    
+    /**
+     * Returns the closest vocabulary term within the edit bound for its length,
+     * or {@code null} if there is none.
+     */
+    public String closest(String foldedTerm) {
+        if (foldedTerm.length() < MIN_TERM_LENGTH) {
+            return null;
+        }
+        int maxDistance = foldedTerm.length() <= 4 ? 1 : 2;
+        
+        Set<String> queryTrigrams = new LinkedHashSet<>(trigrams(foldedTerm));
+        int minShared = Math.max(1, queryTrigrams.size() - 3 * maxDistance);
+        
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            int[] terms = termsByTrigram.get(trigram);
+            if (terms != null) {
+                for (int t : terms) {
+                    shared.merge(t, 1, Integer::sum);
+                }
+            }
+        }
+        
+        String best = null;
+        int bestDistance = maxDistance + 1;
+        int bestFrequency = -1;
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() < minShared) {
+                continue;
+            }
+            int t = entry.getKey();
+            String term = vocabulary[t];
+            if (Math.abs(term.length() - foldedTerm.length()) > maxDistance) {
+                continue;
+            }
+            int distance = boundedDistance(foldedTerm, term, Math.min(maxDistance, bestDistance));
+            if (distance < bestDistance || (distance == bestDistance && fieldFrequency[t] > bestFrequency)) {
+                best = term;
+                bestDistance = distance;
+                bestFrequency = fieldFrequency[t];
+            }
+        }
+        return bestDistance <= maxDistance ? best : null;
+    }
+    
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or {@code bound + 1}
+     * once it is known to exceed {@code bound}.
+     */
+    static int boundedDistance(String a, String b, int bound) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+    
+    private static List<String> trigrams(String term) {
+        char[] padded = new char[term.length() + 2];
+        padded[0] = PAD;
+        term.getChars(0, term.length(), padded, 1);
+        padded[padded.length - 1] = PAD;
+        
+        List<String> trigrams = new ArrayList<>(padded.length - 2);
+        for (int i = 0; i + 3 <= padded.length; i++) {
+            trigrams.add(new String(Arrays.copyOfRange(padded, i, i + 3)));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,20 @@
+package com.courseplatform.search;
+
+import lombok.Value;
+
+/**
+ * One searchable piece of catalog text together with the context needed to
+ * report a match on it. Instances are immutable and shared between requests.
+ */
+@Value
+public class IndexedField {
+    int id;
+    SearchField field;
+    String courseId;
+    String courseTitle;
+    String topicTitle;
+    String subtopicId;
+    String subtopicTitle;
+    String text;
+    String foldedText;
+}
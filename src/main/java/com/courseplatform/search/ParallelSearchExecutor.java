@@ -0,0 +1,95 @@
+package com.courseplatform.search;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Scores large candidate sets on a dedicated {@link ForkJoinPool}. The candidate
+ * list is split recursively at course boundaries; each leaf keeps its own top
+ * courses and the partial results are merged on the way back up.
+ * <p>
+ * Only used when a query has at least {@code search.parallel.min-fields}
+ * candidate fields; below that the fork/join overhead outweighs the gain.
+ */
+@Component
+@Slf4j
+public class ParallelSearchExecutor {
+    
+    private final boolean enabled;
+    private final int minFields;
+    private final int leafFields;
+    private final ForkJoinPool pool;
+    
+    public ParallelSearchExecutor(@Value("${search.parallel.enabled:true}") boolean enabled,
+                                  @Value("${search.parallel.min-fields:5000}") int minFields,
+                                  @Value("${search.parallel.leaf-fields:1000}") int leafFields,
+                                  @Value("${search.parallel.parallelism:0}") int parallelism) {
+        this.enabled = enabled;
+        this.minFields = minFields;
+        this.leafFields = Math.max(1, leafFields);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("search-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        log.info("Parallel search {} with {} threads above {} candidate fields",
+                enabled ? "enabled" : "disabled", threads, minFields);
+    }
+    
+    public List<CourseHits> topCourses(List<IndexedField> candidates, TopCoursesCollector collector) {
+        if (!enabled || candidates.size() < minFields) {
+            return collector.collect(candidates, 0, candidates.size());
+        }
+        return pool.invoke(new RankTask(candidates, collector, 0, candidates.size()));
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+    
+    private final class RankTask extends RecursiveTask<List<CourseHits>> {
+        
+        private final List<IndexedField> candidates;
+        private final TopCoursesCollector collector;
+        private final int from;
+        private final int to;
+        
+        RankTask(List<IndexedField> candidates, TopCoursesCollector collector, int from, int to) {
+            this.candidates = candidates;
+            this.collector = collector;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected List<CourseHits> compute() {
+            int split = courseBoundaryNear(from + (to - from) / 2);
+            if (to - from <= leafFields || split <= from || split >= to) {
+                return collector.collect(candidates, from, to);
+            }
+            
+            RankTask left = new RankTask(candidates, collector, from, split);
+            left.fork();
+            List<CourseHits> right = new RankTask(candidates, collector, split, to).compute();
+            return collector.merge(left.join(), right);
+        }
+        
+        // First index at or after middle where a new course starts
+        private int courseBoundaryNear(int middle) {
+            int split = middle;
+            while (split < to && split > from
+                    && candidates.get(split).getCourseId().equals(candidates.get(split - 1).getCourseId())) {
+                split++;
+            }
+            return split;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.courseplatform.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Literal, case-insensitive matcher for a search query, compiled once per query
+ * and run against pre-folded field text. User input is never interpreted as a
+ * regular expression.
+ * <p>
+ * The query is split into terms on whitespace; a double-quoted part is kept as
+ * one phrase term. A field matches when it contains every term. A single term
+ * is searched with Boyer-Moore-Horspool, several terms with one Aho-Corasick
+ * pass over the text. Query length is capped by the caller, so both run in time
+ * linear in the text length. Both count and report every occurrence, overlapping
+ * ones included: "aa" occurs three times in "aaaa".
+ */
+public abstract class QueryMatcher {
+    
+    private static final QueryMatcher NONE = new QueryMatcher() {
+        @Override
+        public int countMatches(String foldedText) {
+            return 0;
+        }
+        
+        @Override
+        public void forEachMatch(String foldedText, int from, int to, MatchConsumer consumer) {
+        }
+    };
+    
+    /**
+     * Returns the total number of term occurrences in {@code foldedText},
+     * overlapping ones included, or 0 if any term is missing.
+     */
+    public abstract int countMatches(String foldedText);
+    
+    /**
+     * Reports the occurrences of any term lying entirely within
+     * {@code [from, to)} of {@code foldedText}, ordered by end offset, until the
+     * consumer returns {@code false}. Offsets are valid in the unfolded text too.
+     */
+    public abstract void forEachMatch(String foldedText, int from, int to, MatchConsumer consumer);
+    
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /** Receives a match {@code [start, end)}; returns whether to keep scanning. */
+        boolean accept(int start, int end);
+    }
+    
+    public static QueryMatcher compile(String query) {
+        List<String> terms = parseTerms(SearchTokenizer.fold(query));
+        if (terms.isEmpty()) {
+            return NONE;
+        }
+        if (terms.size() == 1) {
+            return new HorspoolMatcher(terms.get(0));
+        }
+        return new AhoCorasickMatcher(terms);
+    }
+    
+    static List<String> parseTerms(String foldedQuery) {
+        Set<String> terms = new LinkedHashSet<>();
+        int length = foldedQuery.length();
+        int i = 0;
+        while (i < length) {
+            char c = foldedQuery.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int close = foldedQuery.indexOf('"', i + 1);
+                int end = close < 0 ? length : close;
+                String phrase = foldedQuery.substring(i + 1, end).strip();
+                if (!phrase.isEmpty()) {
+                    terms.add(phrase);
+                }
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < length && !Character.isWhitespace(foldedQuery.charAt(end))) {
+                    end++;
+                }
+                terms.add(foldedQuery.substring(i, end));
+                i = end;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+    
+    /**
+     * Boyer-Moore-Horspool with a 256-entry bad-character table indexed by the
+     * low byte of each char. Colliding chars keep the smallest shift, which is
+     * always safe.
+     */
+    static final class HorspoolMatcher extends QueryMatcher {
+        
+        private final char[] pattern;
+        private final int[] shift = new int[256];
+        
+        HorspoolMatcher(String term) {
+            this.pattern = term.toCharArray();
+            int m = pattern.length;
+            Arrays.fill(shift, m);
+            for (int i = 0; i < m - 1; i++) {
+                int bucket = pattern[i] & 0xFF;
+                shift[bucket] = Math.min(shift[bucket], m - 1 - i);
+            }
+        }
+        
+        @Override
+        public int countMatches(String text) {
+            int count = 0;
+            int from = 0;
+            int match;
+            while ((match = indexOf(text, from, text.length())) >= 0) {
+                count++;
+                from = match + 1;
+            }
+            return count;
+        }
+        
+        @Override
+        public void forEachMatch(String text, int from, int to, MatchConsumer consumer) {
+            int match;
+            while ((match = indexOf(text, from, to)) >= 0) {
+                if (!consumer.accept(match, match + pattern.length)) {
+                    return;
+                }
+                from = match + 1;
+            }
+        }
+        
+        private int indexOf(String text, int from, int to) {
+            int m = pattern.length;
+            int last = m - 1;
+            int limit = to - m;
+            int i = from;
+            while (i <= limit) {
+                char tail = text.charAt(i + last);
+                if (tail == pattern[last]) {
+                    int j = last - 1;
+                    while (j >= 0 && text.charAt(i + j) == pattern[j]) {
+                        j--;
+                    }
+                    if (j < 0) {
+                        return i;
+                    }
+                }
+                i += shift[tail & 0xFF];
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * Aho-Corasick automaton over all query terms. Matching is a single pass over
+     * the text; each term's occurrences are counted, overlapping ones included.
+     */
+    static final class AhoCorasickMatcher extends QueryMatcher {
+        
+        private final int termCount;
+        private final int[] termLengths;
+        private final List<char[]> labels = new ArrayList<>();     // per state, sorted edge chars
+        private final List<int[]> targets = new ArrayList<>();     // per state, edge target states
+        private int[] fail;
+        private int[] terminal;   // term index ending at this state, or -1
+        private int[] outputLink; // nearest proper suffix state that ends a term, or -1
+        
+        AhoCorasickMatcher(List<String> terms) {
+            this.termCount = terms.size();
+            this.termLengths = terms.stream().mapToInt(String::length).toArray();
+            List<Integer> terminals = new ArrayList<>();
+            addState(terminals);
+            for (int t = 0; t < terms.size(); t++) {
+                int state = 0;
+                for (char c : terms.get(t).toCharArray()) {
+                    int next = next(state, c);
+                    if (next < 0) {
+                        next = addState(terminals);
+                        addEdge(state, c, next);
+                    }
+                    state = next;
+                }
+                terminals.set(state, t);
+            }
+            
+            int states = labels.size();
+            terminal = terminals.stream().mapToInt(Integer::intValue).toArray();
+            fail = new int[states];
+            outputLink = new int[states];
+            Arrays.fill(outputLink, -1);
+            
+            // Breadth-first so every state's fail target is final before its children are visited
+            int[] queue = new int[states];
+            int head = 0;
+            int tail = 0;
+            for (int child : targets.get(0)) {
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                char[] edgeLabels = labels.get(state);
+                int[] edgeTargets = targets.get(state);
+                for (int e = 0; e < edgeLabels.length; e++) {
+                    int child = edgeTargets[e];
+                    int f = fail[state];
+                    while (f > 0 && next(f, edgeLabels[e]) < 0) {
+                        f = fail[f];
+                    }
+                    int candidate = next(f, edgeLabels[e]);
+                    fail[child] = candidate >= 0 && candidate != child ? candidate : 0;
+                    outputLink[child] = terminal[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                    queue[tail++] = child;
+                }
+            }
+        }
+        
+        @Override
+        public int countMatches(String text) {
+            int[] counts = new int[termCount];
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int next;
+                while ((next = next(state, c)) < 0 && state > 0) {
+                    state = fail[state];
+                }
+                state = Math.max(next, 0);
+                for (int s = terminal[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                    counts[terminal[s]]++;
+                }
+            }
+            
+            int total = 0;
+            for (int count : counts) {
+                if (count == 0) {
+                    return 0;
+                }
+                total += count;
+            }
+            return total;
+        }
+        
+        @Override
+        public void forEachMatch(String text, int from, int to, MatchConsumer consumer) {
+            int state = 0;
+            for (int i = from; i < to; i++) {
+                char c = text.charAt(i);
+                int next;
+                while ((next = next(state, c)) < 0 && state > 0) {
+                    state = fail[state];
+                }
+                state = Math.max(next, 0);
+                for (int s = terminal[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                    if (!consumer.accept(i + 1 - termLengths[terminal[s]], i + 1)) {
+                        return;
+                    }
+                }
+            }
+        }
+        
+        private int addState(List<Integer> terminals) {
+            labels.add(new char[0]);
+            targets.add(new int[0]);
+            terminals.add(-1);
+            return labels.size() - 1;
+        }
+        
+        private void addEdge(int state, char c, int target) {
+            char[] oldLabels = labels.get(state);
+            int[] oldTargets = targets.get(state);
+            int insert = -(Arrays.binarySearch(oldLabels, c) + 1);
+            
+            char[] newLabels = new char[oldLabels.length + 1];
+            int[] newTargets = new int[oldTargets.length + 1];
+            System.arraycopy(oldLabels, 0, newLabels, 0, insert);
+            System.arraycopy(oldTargets, 0, newTargets, 0, insert);
+            newLabels[insert] = c;
+            newTargets[insert] = target;
+            System.arraycopy(oldLabels, insert, newLabels, insert + 1, oldLabels.length - insert);
+            System.arraycopy(oldTargets, insert, newTargets, insert + 1, oldTargets.length - insert);
+            
+            labels.set(state, newLabels);
+            targets.set(state, newTargets);
+        }
+        
+        private int next(int state, char c) {
+            int index = Arrays.binarySearch(labels.get(state), c);
+            return index >= 0 ? targets.get(state)[index] : -1;
+        }
+    }
+}
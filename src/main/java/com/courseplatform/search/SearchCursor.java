@@ -0,0 +1,47 @@
+package com.courseplatform.search;
+
+import com.courseplatform.exception.BadRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a ranked result list: the score and course id of
+ * the last result on the previous page.
+ */
+@Value
+public class SearchCursor {
+    
+    double score;
+    String courseId;
+    
+    public static SearchCursor after(CourseHits last) {
+        return new SearchCursor(last.getScore(), last.getCourseId());
+    }
+    
+    public static SearchCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new SearchCursor(Double.parseDouble(decoded.substring(0, separator)),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+    
+    public String encode() {
+        String raw = score + "|" + courseId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /** Whether {@code hits} ranks strictly after this position. */
+    public boolean precedes(CourseHits hits) {
+        int byScore = Double.compare(hits.getScore(), score);
+        if (byScore != 0) {
+            return byScore < 0;
+        }
+        return hits.getCourseId().compareTo(courseId) > 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogLoader;
+import com.courseplatform.dto.response.CourseDetailResponse;
+import com.courseplatform.dto.response.SubtopicDTO;
+import com.courseplatform.dto.response.TopicDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads course content as detached documents, reshaping what
+ * {@link CatalogLoader} reads with one query per table. Callers are expected
+ * to run inside a read-only transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchDocumentLoader {
+    
+    private final CatalogLoader catalogLoader;
+    
+    public List<CourseDocument> loadAll() {
+        return toDocuments(catalogLoader.loadAll());
+    }
+    
+    /**
+     * Loads the given courses in the order of {@code courseIds}; ids that no
+     * longer exist are skipped.
+     */
+    public List<CourseDocument> load(Collection<String> courseIds) {
+        Map<String, CourseDocument> documentsById = new HashMap<>();
+        for (CourseDocument document : toDocuments(catalogLoader.load(courseIds))) {
+            documentsById.put(document.getId(), document);
+        }
+        List<CourseDocument> documents = new ArrayList<>();
+        for (String courseId : courseIds) {
+            CourseDocument document = documentsById.get(courseId);
+            if (document != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+    
+    /**
+     * Flattens documents into searchable fields. Field ids follow catalog order:
+     * course title, description, then each topic title followed by its subtopics.
+     */
+    public static List<IndexedField> toFields(List<CourseDocument> documents) {
+        List<IndexedField> fields = new ArrayList<>();
+        for (CourseDocument course : documents) {
+            addField(fields, SearchField.COURSE_TITLE, course, null, null, course.getTitle());
+            addField(fields, SearchField.COURSE_DESCRIPTION, course, null, null, course.getDescription());
+            for (TopicDocument topic : course.getTopics()) {
+                addField(fields, SearchField.TOPIC_TITLE, course, topic, null, topic.getTitle());
+                for (SubtopicDocument subtopic : topic.getSubtopics()) {
+                    addField(fields, SearchField.SUBTOPIC_TITLE, course, topic, subtopic, subtopic.getTitle());
+                    addField(fields, SearchField.CONTENT, course, topic, subtopic, subtopic.getContent());
+                }
+            }
+        }
+        return fields;
+    }
+    
+    private static void addField(List<IndexedField> fields, SearchField type, CourseDocument course,
+                                 TopicDocument topic, SubtopicDocument subtopic, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        fields.add(new IndexedField(
+                fields.size(),
+                type,
+                course.getId(),
+                course.getTitle(),
+                topic != null ? topic.getTitle() : null,
+                subtopic != null ? subtopic.getSubtopicId() : null,
+                subtopic != null ? subtopic.getTitle() : null,
+                text,
+                SearchTokenizer.fold(text)));
+    }
+    
+    private static List<CourseDocument> toDocuments(List<CourseDetailResponse> details) {
+        List<CourseDocument> documents = new ArrayList<>(details.size());
+        for (CourseDetailResponse course : details) {
+            List<TopicDocument> topics = new ArrayList<>(course.getTopics().size());
+            for (TopicDTO topic : course.getTopics()) {
+                List<SubtopicDocument> subtopics = new ArrayList<>(topic.getSubtopics().size());
+                for (SubtopicDTO subtopic : topic.getSubtopics()) {
+                    subtopics.add(new SubtopicDocument(subtopic.getId(), subtopic.getTitle(), subtopic.getContent()));
+                }
+                topics.add(new TopicDocument(topic.getTitle(), subtopics));
+            }
+            documents.add(new CourseDocument(course.getId(), course.getTitle(), course.getDescription(), topics));
+        }
+        return documents;
+    }
+    
+    @Value
+    public static class CourseDocument {
+        String id;
+        String title;
+        String description;
+        List<TopicDocument> topics;
+    }
+    
+    @Value
+    public static class TopicDocument {
+        String title;
+        List<SubtopicDocument> subtopics;
+    }
+    
+    @Value
+    public static class SubtopicDocument {
+        String subtopicId;
+        String title;
+        String content;
+    }
+}
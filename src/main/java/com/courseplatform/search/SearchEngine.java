@@ -0,0 +1,21 @@
+package com.courseplatform.search;
+
+import java.util.List;
+
+/**
+ * Finds the catalog fields that may match a query. Implementations return a
+ * superset of the real matches; {@code SearchService} verifies each candidate.
+ * Selected with the {@code search.engine} property.
+ */
+public interface SearchEngine {
+    
+    List<IndexedField> candidates(String query);
+    
+    /**
+     * Rewrites the query with misspelled terms replaced by the closest known
+     * terms, or returns {@code null} if nothing needed (or could be) corrected.
+     */
+    default String correct(String query) {
+        return null;
+    }
+}
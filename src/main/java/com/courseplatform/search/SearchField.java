@@ -0,0 +1,21 @@
+package com.courseplatform.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Searchable fields of the catalog, in the order they are visited for a course,
+ * with the relevance weight of a match in each.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SearchField {
+    COURSE_TITLE("course", 10.0),
+    COURSE_DESCRIPTION("course", 2.0),
+    TOPIC_TITLE("topic", 6.0),
+    SUBTOPIC_TITLE("subtopic", 4.0),
+    CONTENT("content", 1.0);
+    
+    private final String matchType;
+    private final double weight;
+}
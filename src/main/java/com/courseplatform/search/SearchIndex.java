@@ -0,0 +1,273 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.search.SearchDocumentLoader.CourseDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over course, topic and subtopic text.
+ * <p>
+ * Query terms match indexed terms as substrings. They are resolved through a
+ * second index from every one- to three-character gram of the vocabulary to
+ * the terms containing it, so a lookup intersects a few gram lists instead of
+ * scanning the vocabulary.
+ * <p>
+ * The index is built once the application is ready and rebuilt for the affected
+ * courses whenever a {@link CatalogChangedEvent} is published. Readers always see
+ * a complete, immutable snapshot, so searching never touches the database.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndex implements SearchEngine {
+    
+    private final SearchDocumentLoader documentLoader;
+    
+    private volatile Snapshot snapshot;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(CatalogVersion.REBUILD_ORDER)
+    @Transactional(readOnly = true)
+    public synchronized void build() {
+        List<CourseDocument> documents = documentLoader.loadAll();
+        
+        snapshot = new Snapshot(documents);
+        log.info("Search index built: {} courses, {} fields, {} terms",
+                documents.size(), snapshot.fields.size(), snapshot.vocabulary.length);
+    }
+    
+    @EventListener
+    @Order(CatalogVersion.REBUILD_ORDER)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onCatalogChanged(CatalogChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Not built yet; the initial build will pick the change up
+            return;
+        }
+        
+        Set<String> courseIds = event.getCourseIds();
+        List<CourseDocument> reloaded = documentLoader.load(courseIds);
+        
+        Map<String, CourseDocument> documents = new TreeMap<>();
+        for (CourseDocument document : current.documents) {
+            if (!courseIds.contains(document.getId())) {
+                documents.put(document.getId(), document);
+            }
+        }
+        for (CourseDocument document : reloaded) {
+            documents.put(document.getId(), document);
+        }
+        
+        snapshot = new Snapshot(new ArrayList<>(documents.values()));
+        log.info("Search index refreshed for courses {}", courseIds);
+    }
+    
+    /**
+     * Returns the fields that may contain {@code query} as a case-insensitive
+     * substring, in catalog order. Every real match is included; callers verify
+     * the candidates against the field text.
+     */
+    @Override
+    public List<IndexedField> candidates(String query) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        return current.candidates(SearchTokenizer.terms(SearchTokenizer.fold(query)));
+    }
+    
+    /**
+     * Replaces every query term that no indexed term contains with its closest
+     * vocabulary term, keeping the rest of the query as typed (lower-cased).
+     */
+    @Override
+    public String correct(String query) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        
+        String folded = SearchTokenizer.fold(query);
+        StringBuilder corrected = new StringBuilder(folded.length());
+        boolean changed = false;
+        int i = 0;
+        while (i < folded.length()) {
+            if (!Character.isLetterOrDigit(folded.charAt(i))) {
+                corrected.append(folded.charAt(i++));
+                continue;
+            }
+            int end = i;
+            while (end < folded.length() && Character.isLetterOrDigit(folded.charAt(end))) {
+                end++;
+            }
+            String term = folded.substring(i, end);
+            String replacement = current.isKnown(term) ? null : current.corrector.closest(term);
+            if (replacement != null) {
+                corrected.append(replacement);
+                changed = true;
+            } else {
+                corrected.append(term);
+            }
+            i = end;
+        }
+        return changed ? corrected.toString() : null;
+    }
+    
+    private static final class Snapshot {
+        
+        // Longest gram indexed; longer query terms intersect their grams of this length
+        private static final int GRAM = 3;
+        private static final int[] NONE = new int[0];
+        
+        private final List<CourseDocument> documents;
+        private final List<IndexedField> fields;
+        private final Map<String, int[]> postings;
+        private final String[] vocabulary;
+        // Gram to the sorted indexes of the vocabulary terms containing it
+        private final Map<String, int[]> grams;
+        private final FuzzyCorrector corrector;
+        
+        Snapshot(List<CourseDocument> documents) {
+            this.documents = List.copyOf(documents);
+            this.fields = SearchDocumentLoader.toFields(this.documents);
+            
+            // Field ids are assigned in increasing order, so every posting list is sorted
+            Map<String, List<Integer>> postingLists = new LinkedHashMap<>();
+            for (IndexedField field : fields) {
+                for (String term : SearchTokenizer.terms(field.getFoldedText())) {
+                    postingLists.computeIfAbsent(term, t -> new ArrayList<>()).add(field.getId());
+                }
+            }
+            
+            this.postings = new HashMap<>(postingLists.size() * 2);
+            postingLists.forEach((term, ids) ->
+                    postings.put(term, ids.stream().mapToInt(Integer::intValue).toArray()));
+            this.vocabulary = postingLists.keySet().toArray(new String[0]);
+            
+            Map<String, List<Integer>> gramLists = new HashMap<>();
+            Set<String> termGrams = new HashSet<>();
+            for (int t = 0; t < vocabulary.length; t++) {
+                String term = vocabulary[t];
+                termGrams.clear();
+                for (int length = 1; length <= GRAM; length++) {
+                    for (int i = 0; i + length <= term.length(); i++) {
+                        termGrams.add(term.substring(i, i + length));
+                    }
+                }
+                for (String gram : termGrams) {
+                    gramLists.computeIfAbsent(gram, g -> new ArrayList<>()).add(t);
+                }
+            }
+            this.grams = new HashMap<>(gramLists.size() * 2);
+            gramLists.forEach((gram, terms) -> grams.put(gram, terms.stream().mapToInt(Integer::intValue).toArray()));
+            
+            int[] fieldFrequency = new int[vocabulary.length];
+            for (int t = 0; t < vocabulary.length; t++) {
+                fieldFrequency[t] = postings.get(vocabulary[t]).length;
+            }
+            this.corrector = new FuzzyCorrector(vocabulary, fieldFrequency);
+        }
+        
+        boolean isKnown(String term) {
+            return postings.containsKey(term) || termsContaining(term).length > 0;
+        }
+        
+        // Indexes of the vocabulary terms that contain queryTerm, ascending
+        private int[] termsContaining(String queryTerm) {
+            if (queryTerm.length() <= GRAM) {
+                return grams.getOrDefault(queryTerm, NONE);
+            }
+            List<int[]> lists = new ArrayList<>(queryTerm.length() - GRAM + 1);
+            for (int i = 0; i + GRAM <= queryTerm.length(); i++) {
+                int[] terms = grams.get(queryTerm.substring(i, i + GRAM));
+                if (terms == null) {
+                    return NONE;
+                }
+                lists.add(terms);
+            }
+            // Rarest first, so the intersection shrinks as early as possible
+            lists.sort(Comparator.comparingInt(terms -> terms.length));
+            int[] matches = lists.get(0);
+            for (int l = 1; l < lists.size() && matches.length > 0; l++) {
+                matches = intersect(matches, lists.get(l));
+            }
+            // Containing every gram does not make the query term a substring; check the few left
+            return Arrays.stream(matches).filter(t -> vocabulary[t].contains(queryTerm)).toArray();
+        }
+        
+        private static int[] intersect(int[] left, int[] right) {
+            int[] both = new int[Math.min(left.length, right.length)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length && j < right.length) {
+                if (left[i] < right[j]) {
+                    i++;
+                } else if (left[i] > right[j]) {
+                    j++;
+                } else {
+                    both[count++] = left[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(both, count);
+        }
+        
+        List<IndexedField> candidates(Set<String> queryTerms) {
+            if (queryTerms.isEmpty()) {
+                // Nothing to look up (e.g. a punctuation-only query); verify every field
+                return fields;
+            }
+            
+            BitSet result = null;
+            for (String queryTerm : queryTerms) {
+                // A substring match of the query implies each query term is part of some indexed term
+                BitSet matches = new BitSet(fields.size());
+                for (int t : termsContaining(queryTerm)) {
+                    for (int id : postings.get(vocabulary[t])) {
+                        matches.set(id);
+                    }
+                }
+                
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.and(matches);
+                }
+                if (result.isEmpty()) {
+                    return List.of();
+                }
+            }
+            
+            List<IndexedField> candidates = new ArrayList<>(result.cardinality());
+            for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1)) {
+                candidates.add(fields.get(id));
+            }
+            return candidates;
+        }
+    }
+}
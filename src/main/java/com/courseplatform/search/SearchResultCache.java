@@ -0,0 +1,105 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.dto.response.MatchDTO;
+import com.courseplatform.dto.response.SearchCacheStatsResponse;
+import com.courseplatform.dto.response.SearchResponse;
+import com.courseplatform.dto.response.SearchResultDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of search pages (Caffeine, W-TinyLFU eviction). Entries are
+ * keyed by the case-folded query, page size, cursor and the {@link CatalogVersion}
+ * they were computed at, so a catalog change makes every older entry unreachable;
+ * those entries are then evicted as the cache fills.
+ */
+@Component
+public class SearchResultCache {
+    
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int MATCH_OVERHEAD_BYTES = 64;
+    private static final int HIGHLIGHT_BYTES = 24;
+    
+    private final CatalogVersion catalogVersion;
+    private final boolean enabled;
+    private final Cache<Key, SearchResponse> cache;
+    
+    public SearchResultCache(CatalogVersion catalogVersion,
+                             @Value("${search.cache.enabled:true}") boolean enabled,
+                             @Value("${search.cache.max-bytes:33554432}") long maxBytes) {
+        this.catalogVersion = catalogVersion;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, SearchResponse response) -> estimateBytes(key, response))
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Returns the cached page for the query, computing it at most once per key
+     * when absent. The returned response echoes {@code query} as given.
+     */
+    public SearchResponse get(String query, int limit, String cursor, Supplier<SearchResponse> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        
+        Key key = new Key(catalogVersion.current(), SearchTokenizer.fold(query), limit, cursor);
+        SearchResponse cached = cache.get(key, k -> search.get());
+        
+        return SearchResponse.builder()
+                .query(query)
+                .results(cached.getResults())
+                .nextCursor(cached.getNextCursor())
+                .build();
+    }
+    
+    public SearchCacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return SearchCacheStatsResponse.builder()
+                .catalogVersion(catalogVersion.current())
+                .entries(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .build();
+    }
+    
+    private static int estimateBytes(Key key, SearchResponse response) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.query.length();
+        for (SearchResultDTO result : response.getResults()) {
+            bytes += ENTRY_OVERHEAD_BYTES;
+            for (MatchDTO match : result.getMatches()) {
+                bytes += MATCH_OVERHEAD_BYTES + 2L * length(match.getSnippet());
+                if (match.getHighlights() != null) {
+                    bytes += (long) HIGHLIGHT_BYTES * match.getHighlights().size();
+                }
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+    
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+    
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final long catalogVersion;
+        private final String query;
+        private final int limit;
+        private final String cursor;
+    }
+}
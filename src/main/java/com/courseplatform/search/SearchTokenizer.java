@@ -0,0 +1,57 @@
+package com.courseplatform.search;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Case folding and term splitting shared by index construction and query parsing.
+ * A term is a maximal run of letters and digits.
+ * <p>
+ * Folding maps each {@code char} on its own, so folded text has the same length
+ * as the original and match offsets found in one are valid in the other.
+ */
+public final class SearchTokenizer {
+    
+    private SearchTokenizer() {
+    }
+    
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        
+        char[] folded = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char lower = Character.toLowerCase(c);
+            if (lower != c) {
+                if (folded == null) {
+                    folded = text.toCharArray();
+                }
+                folded[i] = lower;
+            }
+        }
+        // Already lower case text (most of the content) is returned without copying
+        return folded == null ? text : new String(folded);
+    }
+    
+    public static Set<String> terms(String foldedText) {
+        Set<String> terms = new LinkedHashSet<>();
+        int length = foldedText.length();
+        int start = -1;
+        for (int i = 0; i < length; i++) {
+            if (Character.isLetterOrDigit(foldedText.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                terms.add(foldedText.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            terms.add(foldedText.substring(start));
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,84 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.response.HighlightDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuts a snippet around the first match of a query and reports the matched
+ * ranges inside it. Matches are located on the field's pre-folded text; because
+ * folding keeps offsets, the snippet is cut from the original text at the same
+ * positions without lower-casing or copying the whole document.
+ */
+public final class SnippetExtractor {
+    
+    private static final int MAX_UNTRUNCATED_LENGTH = 150;
+    private static final int CONTEXT_BEFORE = 50;
+    private static final int CONTEXT_AFTER = 100;
+    private static final int MAX_HIGHLIGHTS = 20;
+    private static final String ELLIPSIS = "...";
+    
+    private SnippetExtractor() {
+    }
+    
+    /** The whole field text with its highlights; used for titles. */
+    public static Snippet whole(IndexedField field, QueryMatcher matcher) {
+        String text = field.getText();
+        return new Snippet(text, highlights(field.getFoldedText(), matcher, 0, text.length(), 0));
+    }
+    
+    /**
+     * A window of the field text starting shortly before the first match, with
+     * ellipses where it was cut. Short texts are returned whole.
+     */
+    public static Snippet around(IndexedField field, QueryMatcher matcher) {
+        String text = field.getText();
+        if (text.length() <= MAX_UNTRUNCATED_LENGTH) {
+            return whole(field, matcher);
+        }
+        
+        int[] first = {-1, -1};
+        matcher.forEachMatch(field.getFoldedText(), 0, text.length(), (start, end) -> {
+            first[0] = start;
+            first[1] = end;
+            return false;
+        });
+        
+        int start;
+        int end;
+        if (first[0] < 0) {
+            start = 0;
+            end = MAX_UNTRUNCATED_LENGTH;
+        } else {
+            start = Math.max(0, first[0] - CONTEXT_BEFORE);
+            end = Math.min(text.length(), first[1] + CONTEXT_AFTER);
+        }
+        
+        String prefix = start > 0 ? ELLIPSIS : "";
+        String suffix = end < text.length() ? ELLIPSIS : "";
+        String snippet = prefix + text.substring(start, end) + suffix;
+        
+        return new Snippet(snippet,
+                highlights(field.getFoldedText(), matcher, start, end, prefix.length() - start));
+    }
+    
+    private static List<HighlightDTO> highlights(String foldedText, QueryMatcher matcher,
+                                                 int from, int to, int shift) {
+        List<HighlightDTO> highlights = new ArrayList<>();
+        matcher.forEachMatch(foldedText, from, to, (start, end) -> {
+            highlights.add(new HighlightDTO(start + shift, end + shift));
+            return highlights.size() < MAX_HIGHLIGHTS;
+        });
+        return highlights;
+    }
+    
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Snippet {
+        private final String text;
+        private final List<HighlightDTO> highlights;
+    }
+}
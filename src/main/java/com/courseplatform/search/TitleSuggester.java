@@ -0,0 +1,434 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.dto.response.SuggestionDTO;
+import com.courseplatform.repository.EnrollmentRepository;
+import com.courseplatform.search.SearchDocumentLoader.CourseDocument;
+import com.courseplatform.search.SearchDocumentLoader.SubtopicDocument;
+import com.courseplatform.search.SearchDocumentLoader.TopicDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix autocomplete over course, topic and subtopic titles.
+ * <p>
+ * Every title is inserted into a character trie once per word, so "law" also
+ * completes "Newton's First Law". Each trie node stores its best suggestions,
+ * ranked by popularity; a lookup is a walk of {@code prefix.length()} nodes
+ * followed by a view over that precomputed array.
+ * <p>
+ * Popularity is a per-type base weight plus {@code ln(1 + n)}. For a course, n
+ * is its enrollments; for a subtopic, the course's completions (the sum of the
+ * maintained {@code completed_count} counters) spread evenly over its
+ * subtopics; a topic sums its subtopics. The counts are reread every
+ * {@code search.suggest.popularity-refresh-ms} and the trie is rebuilt in
+ * memory only if they changed. A catalog change reloads the changed courses
+ * and replaces just their titles, copying the trie paths they touch.
+ */
+@Component
+@Slf4j
+public class TitleSuggester {
+    
+    private static final double COURSE_BOOST = 3.0;
+    private static final double TOPIC_BOOST = 2.0;
+    private static final double SUBTOPIC_BOOST = 1.0;
+    
+    // Best first; the remaining keys only make the order total, so updates and rebuilds agree
+    private static final Comparator<WeightedSuggestion> RANKING = Comparator
+            .comparingDouble(WeightedSuggestion::getWeight).reversed()
+            .thenComparingInt(suggestion -> suggestion.getDto().getText().length())
+            .thenComparing(suggestion -> suggestion.getDto().getText())
+            .thenComparing(suggestion -> suggestion.getDto().getCourseId())
+            .thenComparing(suggestion -> suggestion.getDto().getType())
+            .thenComparing(suggestion -> suggestion.getDto().getSubtopicId(), Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    private final SearchDocumentLoader documentLoader;
+    private final EnrollmentRepository enrollmentRepository;
+    private final int maxResults;
+    private final ScheduledExecutorService popularityRefresher;
+    
+    private volatile Node root = Node.EMPTY;
+    
+    // Guarded by this; documents is null until the first rebuild
+    private Map<String, CourseDocument> documents;
+    private final Map<String, List<WeightedSuggestion>> suggestions = new HashMap<>();
+    private Map<String, Long> enrollments = Map.of();
+    private Map<String, Long> completions = Map.of();
+    
+    public TitleSuggester(SearchDocumentLoader documentLoader,
+                          EnrollmentRepository enrollmentRepository,
+                          @Value("${search.suggest.max-results:10}") int maxResults,
+                          @Value("${search.suggest.popularity-refresh-ms:300000}") long popularityRefreshMs) {
+        this.documentLoader = documentLoader;
+        this.enrollmentRepository = enrollmentRepository;
+        this.maxResults = maxResults;
+        if (popularityRefreshMs <= 0) {
+            this.popularityRefresher = null;
+            return;
+        }
+        
+        this.popularityRefresher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "suggest-popularity");
+            thread.setDaemon(true);
+            return thread;
+        });
+        popularityRefresher.scheduleWithFixedDelay(this::refreshPopularityQuietly,
+                popularityRefreshMs, popularityRefreshMs, TimeUnit.MILLISECONDS);
+    }
+    
+    public int getMaxResults() {
+        return maxResults;
+    }
+    
+    /**
+     * Returns up to {@code limit} completions for {@code prefix}, most popular first.
+     * The list is a read-only view over shared, pre-built suggestions.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        Node node = root;
+        String folded = SearchTokenizer.fold(prefix).stripLeading();
+        for (int i = 0; i < folded.length() && node != null; i++) {
+            node = node.child(folded.charAt(i));
+        }
+        if (node == null || folded.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(CatalogVersion.REBUILD_ORDER)
+    @Transactional(readOnly = true)
+    public void onStartup() {
+        rebuild();
+    }
+    
+    @EventListener
+    @Order(CatalogVersion.REBUILD_ORDER)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        update(event.getCourseIds());
+    }
+    
+    /**
+     * Re-ranks the loaded titles by the current enrollment and completion counts.
+     */
+    public synchronized void refreshPopularity() {
+        if (documents != null && loadPopularity()) {
+            build();
+        }
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (popularityRefresher != null) {
+            popularityRefresher.shutdownNow();
+        }
+    }
+    
+    private void refreshPopularityQuietly() {
+        try {
+            refreshPopularity();
+        } catch (RuntimeException e) {
+            log.warn("Suggestion popularity refresh failed; keeping the current ranking", e);
+        }
+    }
+    
+    private synchronized void rebuild() {
+        documents = new LinkedHashMap<>();
+        for (CourseDocument course : documentLoader.loadAll()) {
+            documents.put(course.getId(), course);
+        }
+        loadPopularity();
+        build();
+        log.info("Title suggester built from {} courses", documents.size());
+    }
+    
+    private synchronized void update(Set<String> courseIds) {
+        if (documents == null) {
+            return; // The startup rebuild loads everything
+        }
+        
+        Map<String, CourseDocument> loaded = new HashMap<>();
+        for (CourseDocument course : documentLoader.load(courseIds)) {
+            loaded.put(course.getId(), course);
+        }
+        
+        Node updated = root;
+        for (String courseId : courseIds) {
+            documents.remove(courseId);
+            for (WeightedSuggestion suggestion : suggestions.getOrDefault(courseId, List.of())) {
+                updated = updated.remove(suggestion, maxResults);
+            }
+            suggestions.remove(courseId);
+            
+            CourseDocument course = loaded.get(courseId);
+            if (course != null) {
+                documents.put(courseId, course);
+                List<WeightedSuggestion> added = weigh(course);
+                suggestions.put(courseId, added);
+                for (WeightedSuggestion suggestion : added) {
+                    updated = updated.add(suggestion, maxResults);
+                }
+            }
+        }
+        root = updated;
+        log.debug("Title suggester updated {} courses", courseIds.size());
+    }
+    
+    // Returns whether the counts changed since they were last read
+    private boolean loadPopularity() {
+        Map<String, Long> enrollmentCounts = new HashMap<>();
+        Map<String, Long> completionCounts = new HashMap<>();
+        for (Object[] row : enrollmentRepository.countEnrollmentsAndCompletionsByCourse()) {
+            enrollmentCounts.put((String) row[0], ((Number) row[1]).longValue());
+            completionCounts.put((String) row[0], row[2] != null ? ((Number) row[2]).longValue() : 0L);
+        }
+        
+        boolean changed = !enrollmentCounts.equals(enrollments) || !completionCounts.equals(completions);
+        enrollments = enrollmentCounts;
+        completions = completionCounts;
+        return changed;
+    }
+    
+    private void build() {
+        suggestions.clear();
+        NodeBuilder builder = new NodeBuilder();
+        for (CourseDocument course : documents.values()) {
+            List<WeightedSuggestion> weighted = weigh(course);
+            suggestions.put(course.getId(), weighted);
+            for (WeightedSuggestion suggestion : weighted) {
+                String title = suggestion.getFoldedText();
+                for (int start : wordStarts(title)) {
+                    builder.insert(title, start, suggestion);
+                }
+            }
+        }
+        root = builder.build(maxResults);
+        log.debug("Title suggester ranked {} courses", documents.size());
+    }
+    
+    private List<WeightedSuggestion> weigh(CourseDocument course) {
+        int subtopicCount = 0;
+        for (TopicDocument topic : course.getTopics()) {
+            subtopicCount += topic.getSubtopics().size();
+        }
+        double perSubtopic = subtopicCount == 0 ? 0 : (double) completions.getOrDefault(course.getId(), 0L) / subtopicCount;
+        
+        List<WeightedSuggestion> weighted = new ArrayList<>();
+        weighted.add(new WeightedSuggestion(
+                SuggestionDTO.builder().text(course.getTitle()).type("course").courseId(course.getId()).build(),
+                COURSE_BOOST + Math.log1p(enrollments.getOrDefault(course.getId(), 0L))));
+        for (TopicDocument topic : course.getTopics()) {
+            for (SubtopicDocument subtopic : topic.getSubtopics()) {
+                weighted.add(new WeightedSuggestion(
+                        SuggestionDTO.builder().text(subtopic.getTitle()).type("subtopic")
+                                .courseId(course.getId()).subtopicId(subtopic.getSubtopicId()).build(),
+                        SUBTOPIC_BOOST + Math.log1p(perSubtopic)));
+            }
+            weighted.add(new WeightedSuggestion(
+                    SuggestionDTO.builder().text(topic.getTitle()).type("topic").courseId(course.getId()).build(),
+                    TOPIC_BOOST + Math.log1p(perSubtopic * topic.getSubtopics().size())));
+        }
+        return weighted;
+    }
+    
+    private static List<Integer> wordStarts(String title) {
+        List<Integer> starts = new ArrayList<>();
+        for (int start = 0; start < title.length(); start++) {
+            if (Character.isLetterOrDigit(title.charAt(start))
+                    && (start == 0 || !Character.isLetterOrDigit(title.charAt(start - 1)))) {
+                starts.add(start);
+            }
+        }
+        return starts;
+    }
+    
+    // Ranks the given suggestions and keeps the first maxResults distinct ones
+    private static WeightedSuggestion[] best(List<WeightedSuggestion> candidates, int maxResults) {
+        candidates.sort(RANKING);
+        Map<SuggestionDTO, WeightedSuggestion> best = new LinkedHashMap<>();
+        for (WeightedSuggestion candidate : candidates) {
+            if (best.size() == maxResults) {
+                break;
+            }
+            best.putIfAbsent(candidate.getDto(), candidate);
+        }
+        return best.values().toArray(new WeightedSuggestion[0]);
+    }
+    
+    @Getter
+    private static final class WeightedSuggestion {
+        private final SuggestionDTO dto;
+        private final double weight;
+        private final String foldedText;
+        
+        WeightedSuggestion(SuggestionDTO dto, double weight) {
+            this.dto = dto;
+            this.weight = weight;
+            this.foldedText = SearchTokenizer.fold(dto.getText());
+        }
+    }
+    
+    private static final class NodeBuilder {
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<WeightedSuggestion> ending = new ArrayList<>();
+        
+        void insert(String title, int start, WeightedSuggestion suggestion) {
+            NodeBuilder node = this;
+            for (int i = start; i < title.length(); i++) {
+                node = node.children.computeIfAbsent(title.charAt(i), c -> new NodeBuilder());
+            }
+            node.ending.add(suggestion);
+        }
+        
+        Node build(int maxResults) {
+            char[] labels = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+                labels[i] = child.getKey();
+                nodes[i] = child.getValue().build(maxResults);
+                i++;
+            }
+            return new Node(labels, nodes, ending.toArray(new WeightedSuggestion[0]), maxResults);
+        }
+    }
+    
+    /**
+     * An immutable trie node. Its best suggestions are those ending at it merged
+     * with its children's best, so a change only recomputes the nodes on its path.
+     */
+    private static final class Node {
+        static final Node EMPTY = new Node(new char[0], new Node[0], new WeightedSuggestion[0], 0);
+        
+        private final char[] labels; // sorted
+        private final Node[] children;
+        private final WeightedSuggestion[] ending; // suggestions whose title, from a word start, ends here
+        private final WeightedSuggestion[] best;
+        private final SuggestionDTO[] top;
+        
+        Node(char[] labels, Node[] children, WeightedSuggestion[] ending, int maxResults) {
+            this.labels = labels;
+            this.children = children;
+            this.ending = ending;
+            
+            List<WeightedSuggestion> candidates = new ArrayList<>(Arrays.asList(ending));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.best));
+            }
+            this.best = TitleSuggester.best(candidates, maxResults);
+            this.top = new SuggestionDTO[best.length];
+            for (int i = 0; i < best.length; i++) {
+                top[i] = best[i].getDto();
+            }
+        }
+        
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        boolean isEmpty() {
+            return children.length == 0 && ending.length == 0;
+        }
+        
+        Node add(WeightedSuggestion suggestion, int maxResults) {
+            return change(suggestion, true, maxResults);
+        }
+        
+        Node remove(WeightedSuggestion suggestion, int maxResults) {
+            return change(suggestion, false, maxResults);
+        }
+        
+        private Node change(WeightedSuggestion suggestion, boolean add, int maxResults) {
+            String title = suggestion.getFoldedText();
+            Node node = this;
+            for (int start : wordStarts(title)) {
+                node = node.change(title, start, suggestion, add, maxResults);
+            }
+            return node;
+        }
+        
+        // Copies the path from this node to the end of title[i..], returning the new node
+        private Node change(String title, int i, WeightedSuggestion suggestion, boolean add, int maxResults) {
+            if (i == title.length()) {
+                return new Node(labels, children, add ? with(ending, suggestion) : without(ending, suggestion), maxResults);
+            }
+            
+            char label = title.charAt(i);
+            int index = Arrays.binarySearch(labels, label);
+            Node child = index >= 0 ? children[index] : EMPTY;
+            Node changed = child.change(title, i + 1, suggestion, add, maxResults);
+            
+            if (index >= 0 && changed.isEmpty()) {
+                char[] newLabels = new char[labels.length - 1];
+                Node[] newChildren = new Node[children.length - 1];
+                System.arraycopy(labels, 0, newLabels, 0, index);
+                System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new Node(newLabels, newChildren, ending, maxResults);
+            }
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = changed;
+                return new Node(labels, newChildren, ending, maxResults);
+            }
+            if (changed.isEmpty()) {
+                return this; // Removing a title that was never added
+            }
+            
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = changed;
+            return new Node(newLabels, newChildren, ending, maxResults);
+        }
+        
+        private static WeightedSuggestion[] with(WeightedSuggestion[] suggestions, WeightedSuggestion suggestion) {
+            WeightedSuggestion[] result = Arrays.copyOf(suggestions, suggestions.length + 1);
+            result[suggestions.length] = suggestion;
+            return result;
+        }
+        
+        private static WeightedSuggestion[] without(WeightedSuggestion[] suggestions, WeightedSuggestion suggestion) {
+            for (int i = 0; i < suggestions.length; i++) {
+                if (suggestions[i] == suggestion) {
+                    WeightedSuggestion[] result = new WeightedSuggestion[suggestions.length - 1];
+                    System.arraycopy(suggestions, 0, result, 0, i);
+                    System.arraycopy(suggestions, i + 1, result, i, suggestions.length - i - 1);
+                    return result;
+                }
+            }
+            return suggestions;
+        }
+    }
+}
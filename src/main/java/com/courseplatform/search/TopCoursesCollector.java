@@ -0,0 +1,71 @@
+package com.courseplatform.search;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Scores a contiguous range of candidate fields and keeps the best-ranked
+ * courses in a bounded heap. Stateless apart from its settings, so one instance
+ * may score several ranges concurrently.
+ */
+@RequiredArgsConstructor
+public class TopCoursesCollector {
+    
+    private final QueryMatcher matcher;
+    private final SearchCursor after;
+    private final int keep;
+    private final int maxMatchesPerCourse;
+    
+    /**
+     * Returns at most {@code keep} courses from {@code candidates[from, to)},
+     * unordered. The range must not split a course's fields.
+     */
+    public List<CourseHits> collect(List<IndexedField> candidates, int from, int to) {
+        // The head of the queue is the worst-ranked course kept so far
+        PriorityQueue<CourseHits> top = new PriorityQueue<>(keep + 1, CourseHits.RANKING.reversed());
+        
+        // Candidates arrive in catalog order, so each course's fields are contiguous
+        CourseHits current = null;
+        for (int i = from; i < to; i++) {
+            IndexedField field = candidates.get(i);
+            int termFrequency = matcher.countMatches(field.getFoldedText());
+            if (termFrequency == 0) {
+                continue;
+            }
+            
+            if (current == null || !current.getCourseId().equals(field.getCourseId())) {
+                offer(top, current);
+                current = new CourseHits(field.getCourseId(), field.getCourseTitle(), maxMatchesPerCourse);
+            }
+            current.add(field, termFrequency);
+        }
+        offer(top, current);
+        
+        return new ArrayList<>(top);
+    }
+    
+    /** Merges two partial results, keeping the best {@code keep} courses. */
+    public List<CourseHits> merge(List<CourseHits> left, List<CourseHits> right) {
+        List<CourseHits> merged = new ArrayList<>(left.size() + right.size());
+        merged.addAll(left);
+        merged.addAll(right);
+        if (merged.size() <= keep) {
+            return merged;
+        }
+        merged.sort(CourseHits.RANKING);
+        return new ArrayList<>(merged.subList(0, keep));
+    }
+    
+    private void offer(PriorityQueue<CourseHits> top, CourseHits hits) {
+        if (hits == null || (after != null && !after.precedes(hits))) {
+            return;
+        }
+        top.offer(hits);
+        if (top.size() > keep) {
+            top.poll();
+        }
+    }
+}
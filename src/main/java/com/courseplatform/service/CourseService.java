@@ -1,14 +1,22 @@
 package com.courseplatform.service;
 
+import com.courseplatform.catalog.CompressedText;
+import com.courseplatform.catalog.ContentFormat;
+import com.courseplatform.catalog.ContentRenderer;
+import com.courseplatform.catalog.CourseCatalog;
+import com.courseplatform.catalog.CourseCursor;
+import com.courseplatform.catalog.CourseDetailCache;
+import com.courseplatform.catalog.CourseDetailCache.EncodedDetail;
+import com.courseplatform.catalog.CoursePage;
+import com.courseplatform.catalog.CourseQuery;
+import com.courseplatform.catalog.CourseSort;
+import com.courseplatform.catalog.CourseView;
 import com.courseplatform.dto.response.*;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
+import com.courseplatform.exception.BadRequestException;
 import com.courseplatform.exception.NotFoundException;
-import com.courseplatform.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,74 +25,105 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CourseService {
     
-    private final CourseRepository courseRepository;
+    private final CourseCatalog courseCatalog;
+    private final CourseDetailCache courseDetailCache;
+    private final ContentRenderer contentRenderer;
     
-    @Transactional(readOnly = true)
-    public CourseListResponse getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
+    @Value("${catalog.default-limit:20}")
+    private int defaultLimit;
+    
+    @Value("${catalog.max-limit:100}")
+    private int maxLimit;
+    
+    public CourseListResponse getAllCourses(Integer limit, String cursor, String sort, String title) {
+        CourseSort courseSort = CourseSort.fromParameter(sort);
+        CourseCursor after = cursor == null || cursor.isEmpty() ? null : CourseCursor.decode(cursor);
+        if (after != null && after.getSort() != courseSort) {
+            throw new BadRequestException("Cursor was issued for a different sort order");
+        }
         
-        List<CourseListDTO> courseDTOs = courses.stream()
-                .map(this::convertToCourseListDTO)
-                .collect(Collectors.toList());
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        String titleFilter = title == null || title.isBlank() ? null : title.trim();
+        CoursePage page = courseCatalog.getCourses(new CourseQuery(courseSort, titleFilter, after, pageSize));
         
         return CourseListResponse.builder()
-                .courses(courseDTOs)
+                .courses(page.getCourses())
+                .nextCursor(page.getNext() == null ? null : page.getNext().encode())
                 .build();
     }
     
-    @Transactional(readOnly = true)
     public CourseDetailResponse getCourseById(String courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new NotFoundException("Course not found: " + courseId));
-        
-        return convertToCourseDetailResponse(course);
+        CourseDetailResponse course = courseCatalog.getCourse(courseId);
+        if (course == null) {
+            throw new NotFoundException("Course not found: " + courseId);
+        }
+        return course;
     }
     
-    private CourseListDTO convertToCourseListDTO(Course course) {
-        int topicCount = course.getTopics().size();
-        int subtopicCount = course.getTopics().stream()
-                .mapToInt(topic -> topic.getSubtopics().size())
-                .sum();
+    /**
+     * Returns the course without subtopic content.
+     */
+    public CourseDetailResponse getCourseOutline(String courseId) {
+        CourseDetailResponse course = getCourseById(courseId);
         
-        return CourseListDTO.builder()
-                .id(course.getId())
-                .title(course.getTitle())
-                .description(course.getDescription())
-                .topicCount(topicCount)
-                .subtopicCount(subtopicCount)
-                .build();
-    }
-    
-    private CourseDetailResponse convertToCourseDetailResponse(Course course) {
-        List<TopicDTO> topicDTOs = course.getTopics().stream()
-                .map(this::convertToTopicDTO)
+        List<TopicDTO> topics = course.getTopics().stream()
+                .map(topic -> TopicDTO.builder()
+                        .id(topic.getId())
+                        .title(topic.getTitle())
+                        .subtopics(topic.getSubtopics().stream()
+                                .map(subtopic -> SubtopicDTO.builder()
+                                        .id(subtopic.getId())
+                                        .title(subtopic.getTitle())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build())
                 .collect(Collectors.toList());
         
         return CourseDetailResponse.builder()
                 .id(course.getId())
                 .title(course.getTitle())
                 .description(course.getDescription())
-                .topics(topicDTOs)
+                .topics(topics)
                 .build();
     }
     
-    private TopicDTO convertToTopicDTO(Topic topic) {
-        List<SubtopicDTO> subtopicDTOs = topic.getSubtopics().stream()
-                .map(this::convertToSubtopicDTO)
-                .collect(Collectors.toList());
-        
-        return TopicDTO.builder()
-                .id(topic.getTopicId())
-                .title(topic.getTitle())
-                .subtopics(subtopicDTOs)
-                .build();
+    /**
+     * Returns the requested view and content format of the course already encoded
+     * as JSON, from the detail cache when the course has not changed since it was
+     * encoded.
+     */
+    public EncodedDetail getEncodedCourseById(String courseId, String view, String format) {
+        CourseView courseView = CourseView.fromParameter(view);
+        ContentFormat contentFormat = ContentFormat.fromParameter(format);
+        if (courseView == CourseView.OUTLINE) {
+            // No content to format
+            return courseDetailCache.get(courseId, courseView, ContentFormat.MARKDOWN, () -> getCourseOutline(courseId));
+        }
+        return courseDetailCache.get(courseId, courseView, contentFormat, () -> contentFormat == ContentFormat.HTML
+                ? contentRenderer.render(getCourseById(courseId))
+                : getCourseById(courseId));
     }
     
-    private SubtopicDTO convertToSubtopicDTO(Subtopic subtopic) {
-        return SubtopicDTO.builder()
-                .id(subtopic.getSubtopicId())
-                .title(subtopic.getTitle())
-                .content(subtopic.getContent())
-                .build();
+    /**
+     * Returns the subtopic content as kept gzip-compressed by the catalog, or
+     * {@code null} when it is not stored that way.
+     */
+    public CompressedText getCompressedSubtopicContent(String courseId, String subtopicId) {
+        return courseCatalog.getCompressedContent(courseId, subtopicId);
+    }
+    
+    public SubtopicDTO getSubtopic(String courseId, String subtopicId) {
+        SubtopicDTO subtopic = courseCatalog.getSubtopic(courseId, subtopicId);
+        if (subtopic == null) {
+            throw new NotFoundException("Subtopic not found: " + subtopicId);
+        }
+        return subtopic;
+    }
+    
+    /**
+     * Returns the subtopic content rendered to an HTML fragment.
+     */
+    public String getSubtopicHtml(String courseId, String subtopicId) {
+        return contentRenderer.render(getSubtopic(courseId, subtopicId).getContent());
     }
 }
@@ -2,7 +2,6 @@ package com.courseplatform.service;
 
 import com.courseplatform.dto.response.EnrollmentResponse;
 import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Enrollment;
 import com.courseplatform.entity.User;
 import com.courseplatform.exception.ConflictException;
 import com.courseplatform.exception.NotFoundException;
@@ -13,6 +12,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Service
 @RequiredArgsConstructor
 public class EnrollmentService {
@@ -29,23 +31,16 @@ public class EnrollmentService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new NotFoundException("Course not found"));
         
-        // Check if already enrolled
-        if (enrollmentRepository.existsByUserIdAndCourseId(user.getId(), courseId)) {
-            throw new ConflictException("You are already enrolled in this course");
-        }
-        
-        Enrollment enrollment = Enrollment.builder()
-                .user(user)
-                .course(course)
-                .build();
-        
-        enrollment = enrollmentRepository.save(enrollment);
+        // One atomic statement, so a concurrent double-click gets the 409 rather than a constraint violation
+        LocalDateTime enrolledAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Long enrollmentId = enrollmentRepository.insertIfAbsent(user.getId(), courseId, enrolledAt)
+                .orElseThrow(() -> new ConflictException("You are already enrolled in this course"));
         
         return EnrollmentResponse.builder()
-                .enrollmentId(enrollment.getId())
+                .enrollmentId(enrollmentId)
                 .courseId(course.getId())
                 .courseTitle(course.getTitle())
-                .enrolledAt(enrollment.getEnrolledAt())
+                .enrolledAt(enrolledAt)
                 .build();
     }
 }
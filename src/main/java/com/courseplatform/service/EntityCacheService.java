@@ -0,0 +1,62 @@
+package com.courseplatform.service;
+
+import com.courseplatform.dto.response.CacheRegionStatsDTO;
+import com.courseplatform.dto.response.EntityCacheStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reports the Hibernate second-level and query cache counters. Requires
+ * {@code hibernate.generate_statistics}; without it every counter reads zero.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityCacheService {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    public EntityCacheStatsResponse getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String name : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(CacheRegionStatsDTO.builder()
+                        .region(name)
+                        .hitCount(region.getHitCount())
+                        .missCount(region.getMissCount())
+                        .putCount(region.getPutCount())
+                        .hitRate(hitRate(region.getHitCount(), region.getMissCount()))
+                        .build());
+            }
+        }
+        
+        return EntityCacheStatsResponse.builder()
+                .hitCount(statistics.getSecondLevelCacheHitCount())
+                .missCount(statistics.getSecondLevelCacheMissCount())
+                .putCount(statistics.getSecondLevelCachePutCount())
+                .hitRate(hitRate(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()))
+                .queryHitCount(statistics.getQueryCacheHitCount())
+                .queryMissCount(statistics.getQueryCacheMissCount())
+                .queryPutCount(statistics.getQueryCachePutCount())
+                .queryHitRate(hitRate(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()))
+                .regions(regions)
+                .build();
+    }
+    
+    private static double hitRate(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -1,30 +1,73 @@
 package com.courseplatform.service;
 
+import com.courseplatform.dto.request.CompletionRequest;
 import com.courseplatform.dto.response.*;
 import com.courseplatform.entity.*;
 import com.courseplatform.exception.NotFoundException;
 import com.courseplatform.exception.UnauthorizedException;
+import com.courseplatform.progress.Completion;
+import com.courseplatform.progress.CompletionWriteBehind;
+import com.courseplatform.progress.ProgressStore;
 import com.courseplatform.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ProgressService {
     
-    private final SubtopicProgressRepository progressRepository;
     private final SubtopicRepository subtopicRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final CompletionWriteBehind completionWriteBehind;
+    private final ProgressStore progressStore;
+    private final TransactionTemplate transactionTemplate;
     
-    @Transactional
+    /**
+     * Marks the subtopic completed. With write-behind enabled the journal is
+     * written after the lookups' transaction has ended, so a request waiting for
+     * the journal's fsync holds no database connection.
+     */
     public ProgressResponse markSubtopicComplete(String email, String subtopicId) {
+        LocalDateTime completedAt;
+        if (completionWriteBehind.isEnabled()) {
+            // Acknowledged from the journal; the row is inserted by a later batch
+            Completion completion = transactionTemplate.execute(status -> enrolledCompletion(email, subtopicId));
+            completedAt = progressStore.completedAt(completion.getUserId(), completion.getSubtopicId())
+                    .orElseGet(() -> completionWriteBehind.complete(completion.getUserId(), completion.getSubtopicId()));
+        } else {
+            // One atomic statement; a concurrent or repeated click finds the row and reports its time (idempotent)
+            completedAt = transactionTemplate.execute(status -> {
+                Completion completion = enrolledCompletion(email, subtopicId);
+                return progressStore.insertIfAbsent(completion)
+                        .orElseGet(() -> progressStore.completedAt(completion.getUserId(), completion.getSubtopicId())
+                                .orElseThrow(() -> new IllegalStateException("Progress row vanished for subtopic " + subtopicId)));
+            });
+        }
+        
+        return ProgressResponse.builder()
+                .subtopicId(subtopicId)
+                .completed(true)
+                .completedAt(completedAt)
+                .build();
+    }
+    
+    // Resolves the user and subtopic and checks the enrollment; the completion is timed now
+    private Completion enrolledCompletion(String email, String subtopicId) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         
@@ -38,42 +81,92 @@ public class ProgressService {
         if (!enrollmentRepository.existsByUserIdAndCourseId(user.getId(), courseId)) {
             throw new UnauthorizedException("You must be enrolled in this course to mark progress");
         }
+        return new Completion(user.getId(), subtopic.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+    }
+    
+    /**
+     * Marks many subtopics completed at once, e.g. when a client syncs progress
+     * made offline. Subtopics are resolved with one query, enrollment is checked
+     * once per course, and only completions without a row are inserted. A
+     * subtopic listed twice keeps its earliest time; times in the future are
+     * taken as now.
+     */
+    @Transactional
+    public BatchProgressResponse markSubtopicsComplete(String email, List<CompletionRequest> completions) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new NotFoundException("User not found"));
         
-        // Check if already completed (idempotent)
-        Optional<SubtopicProgress> existingProgress = 
-                progressRepository.findByUserIdAndSubtopicId(user.getId(), subtopic.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Map<String, LocalDateTime> requested = new LinkedHashMap<>();
+        for (CompletionRequest completion : completions) {
+            LocalDateTime completedAt = completion.getCompletedAt() == null || completion.getCompletedAt().isAfter(now)
+                    ? now
+                    : completion.getCompletedAt().truncatedTo(ChronoUnit.MICROS);
+            requested.merge(completion.getSubtopicId(), completedAt, (first, second) -> first.isBefore(second) ? first : second);
+        }
         
-        if (existingProgress.isPresent()) {
-            SubtopicProgress progress = existingProgress.get();
-            return ProgressResponse.builder()
-                    .subtopicId(subtopicId)
-                    .completed(true)
-                    .completedAt(progress.getCompletedAt())
-                    .build();
+        Map<String, Subtopic> subtopics = new HashMap<>();
+        for (Subtopic subtopic : subtopicRepository.findBySubtopicIdIn(requested.keySet())) {
+            subtopics.put(subtopic.getSubtopicId(), subtopic);
+        }
+        Set<String> courseIds = new HashSet<>();
+        for (String subtopicId : requested.keySet()) {
+            Subtopic subtopic = subtopics.get(subtopicId);
+            if (subtopic == null) {
+                throw new NotFoundException("Subtopic not found: " + subtopicId);
+            }
+            courseIds.add(subtopic.getTopic().getCourse().getId());
         }
         
-        // Create new progress
-        SubtopicProgress progress = SubtopicProgress.builder()
-                .user(user)
-                .subtopic(subtopic)
-                .completed(true)
-                .build();
+        Set<String> enrolled = new HashSet<>(enrollmentRepository.findEnrolledCourseIds(user.getId(), courseIds));
+        for (String courseId : courseIds) {
+            if (!enrolled.contains(courseId)) {
+                throw new UnauthorizedException("You must be enrolled in course " + courseId + " to mark progress");
+            }
+        }
         
-        progress = progressRepository.save(progress);
+        // Buffered completions count as existing ones; the buffer is read first so none is missed
+        Map<Long, LocalDateTime> existing = new HashMap<>(completionWriteBehind.buffered(user.getId()));
+        List<Long> ids = subtopics.values().stream().map(Subtopic::getId).toList();
+        existing.putAll(progressStore.completionTimes(user.getId(), ids));
+        
+        List<Completion> missing = new ArrayList<>();
+        List<ProgressResponse> progress = new ArrayList<>(requested.size());
+        requested.forEach((subtopicId, completedAt) -> {
+            Long id = subtopics.get(subtopicId).getId();
+            LocalDateTime recorded = existing.get(id);
+            if (recorded == null) {
+                recorded = completedAt;
+                missing.add(new Completion(user.getId(), id, completedAt));
+            }
+            progress.add(ProgressResponse.builder()
+                    .subtopicId(subtopicId)
+                    .completed(true)
+                    .completedAt(recorded)
+                    .build());
+        });
         
-        return ProgressResponse.builder()
-                .subtopicId(subtopicId)
-                .completed(true)
-                .completedAt(progress.getCompletedAt())
+        return BatchProgressResponse.builder()
+                .created(progressStore.insertMissing(missing))
+                .progress(progress)
                 .build();
     }
     
+    /**
+     * Returns the progress summary from the materialized counters on the
+     * enrollment and its course, read with the enrollment in one statement.
+     * The completed items are listed only when {@code includeItems} is set.
+     * Completions still in the write-behind buffer are added to both.
+     */
     @Transactional(readOnly = true)
-    public EnrollmentProgressResponse getEnrollmentProgress(Long enrollmentId, String email) {
+    public EnrollmentProgressResponse getEnrollmentProgress(Long enrollmentId, String email, boolean includeItems) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+        // Read your own completions even if they are still buffered; merged in below, without a flush
+        Map<Long, LocalDateTime> buffered = completionWriteBehind.buffered(user.getId());
+        
+        Enrollment enrollment = enrollmentRepository.findWithCourseById(enrollmentId)
                 .orElseThrow(() -> new NotFoundException("Enrollment not found"));
         
         // Verify ownership
@@ -84,32 +177,34 @@ public class ProgressService {
         Course course = enrollment.getCourse();
         String courseId = course.getId();
         
-        // Count total subtopics
-        int totalSubtopics = course.getTopics().stream()
-                .mapToInt(topic -> topic.getSubtopics().size())
-                .sum();
-        
-        // Get completed subtopics
-        List<SubtopicProgress> allProgress = 
-                progressRepository.findByUserIdAndCourseId(user.getId(), courseId);
-        
-        List<SubtopicProgress> completedProgress = allProgress.stream()
-                .filter(SubtopicProgress::isCompleted)
-                .collect(Collectors.toList());
+        // Counters are null only until ProgressCounters has counted them
+        int totalSubtopics = course.getSubtopicCount() != null
+                ? course.getSubtopicCount()
+                : (int) subtopicRepository.countByTopicCourseId(courseId);
+        
+        List<CompletedItemDTO> completedItems = includeItems
+                ? progressStore.completedItems(user.getId(), courseId)
+                : null;
+        
+        int completedSubtopics;
+        if (completedItems != null) {
+            completedSubtopics = completedItems.size();
+        } else if (enrollment.getCompletedCount() != null) {
+            completedSubtopics = enrollment.getCompletedCount();
+        } else {
+            completedSubtopics = (int) progressStore.countCompleted(user.getId(), courseId);
+        }
         
-        int completedSubtopics = completedProgress.size();
+        List<CompletedItemDTO> bufferedItems = bufferedItems(user.getId(), courseId, buffered);
+        completedSubtopics += bufferedItems.size();
+        if (completedItems != null && !bufferedItems.isEmpty()) {
+            completedItems = new ArrayList<>(completedItems);
+            completedItems.addAll(bufferedItems);
+        }
         double completionPercentage = totalSubtopics > 0 
                 ? (completedSubtopics * 100.0) / totalSubtopics 
                 : 0.0;
         
-        List<CompletedItemDTO> completedItems = completedProgress.stream()
-                .map(progress -> CompletedItemDTO.builder()
-                        .subtopicId(progress.getSubtopic().getSubtopicId())
-                        .subtopicTitle(progress.getSubtopic().getTitle())
-                        .completedAt(progress.getCompletedAt())
-                        .build())
-                .collect(Collectors.toList());
-        
         return EnrollmentProgressResponse.builder()
                 .enrollmentId(enrollmentId)
                 .courseId(courseId)
@@ -120,4 +215,34 @@ public class ProgressService {
                 .completedItems(completedItems)
                 .build();
     }
+    
+    /**
+     * Returns the buffered completions that belong to the course and are not in
+     * the store, oldest first.
+     */
+    private List<CompletedItemDTO> bufferedItems(long userId, String courseId, Map<Long, LocalDateTime> buffered) {
+        if (buffered.isEmpty()) {
+            return List.of();
+        }
+        List<Subtopic> subtopics = subtopicRepository.findByTopicCourseIdAndIdIn(courseId, buffered.keySet());
+        if (subtopics.isEmpty()) {
+            return List.of();
+        }
+        
+        // A flush may have committed some of them since the buffer was read
+        Map<Long, LocalDateTime> stored = progressStore.completionTimes(userId,
+                subtopics.stream().map(Subtopic::getId).toList());
+        List<CompletedItemDTO> items = new ArrayList<>();
+        for (Subtopic subtopic : subtopics) {
+            if (!stored.containsKey(subtopic.getId())) {
+                items.add(CompletedItemDTO.builder()
+                        .subtopicId(subtopic.getSubtopicId())
+                        .subtopicTitle(subtopic.getTitle())
+                        .completedAt(buffered.get(subtopic.getId()))
+                        .build());
+            }
+        }
+        items.sort(Comparator.comparing(CompletedItemDTO::getCompletedAt));
+        return items;
+    }
 }
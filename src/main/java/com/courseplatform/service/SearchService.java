@@ -1,26 +1,47 @@
 package com.courseplatform.service;
 
 import com.courseplatform.dto.response.*;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
-import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.search.CourseHits;
+import com.courseplatform.exception.BadRequestException;
+import com.courseplatform.search.IndexedField;
+import com.courseplatform.search.ParallelSearchExecutor;
+import com.courseplatform.search.QueryMatcher;
+import com.courseplatform.search.SearchCursor;
+import com.courseplatform.search.SearchEngine;
+import com.courseplatform.search.SearchResultCache;
+import com.courseplatform.search.SnippetExtractor;
+import com.courseplatform.search.SnippetExtractor.Snippet;
+import com.courseplatform.search.TitleSuggester;
+import com.courseplatform.search.TopCoursesCollector;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
     
-    private final CourseRepository courseRepository;
+    private final SearchEngine searchEngine;
+    private final SearchResultCache searchResultCache;
+    private final TitleSuggester titleSuggester;
+    private final ParallelSearchExecutor parallelSearchExecutor;
     
-    @Transactional(readOnly = true)
-    public SearchResponse search(String query) {
+    @Value("${search.default-limit:10}")
+    private int defaultLimit;
+    
+    @Value("${search.max-limit:50}")
+    private int maxLimit;
+    
+    @Value("${search.max-matches-per-result:5}")
+    private int maxMatchesPerResult;
+    
+    @Value("${search.max-query-length:200}")
+    private int maxQueryLength;
+    
+    public SearchResponse search(String query, Integer limit, String cursor, boolean fuzzy) {
         if (query == null || query.trim().isEmpty()) {
             return SearchResponse.builder()
                     .query(query)
@@ -28,94 +49,107 @@ public class SearchService {
                     .build();
         }
         
-        List<Course> courses = courseRepository.searchCourses(query);
-        List<SearchResultDTO> results = new ArrayList<>();
+        if (query.length() > maxQueryLength) {
+            throw new BadRequestException("Search query must be at most " + maxQueryLength + " characters");
+        }
+        
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        SearchCursor after = cursor == null || cursor.isEmpty() ? null : SearchCursor.decode(cursor);
+        
+        String corrected = fuzzy ? searchEngine.correct(query) : null;
+        String effectiveQuery = corrected != null ? corrected : query;
+        
+        SearchResponse response = searchResultCache.get(effectiveQuery, pageSize, after == null ? null : cursor,
+                () -> searchPage(effectiveQuery, pageSize, after));
+        response.setQuery(query);
+        response.setCorrectedQuery(corrected);
+        return response;
+    }
+    
+    public SuggestResponse suggest(String prefix, Integer limit) {
+        int maxResults = titleSuggester.getMaxResults();
+        int count = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        
+        return SuggestResponse.builder()
+                .prefix(prefix)
+                .suggestions(prefix == null ? List.of() : titleSuggester.suggest(prefix, count))
+                .build();
+    }
+    
+    public SearchCacheStatsResponse getCacheStats() {
+        return searchResultCache.stats();
+    }
+    
+    private SearchResponse searchPage(String query, int pageSize, SearchCursor after) {
+        List<IndexedField> candidates = searchEngine.candidates(query);
+        QueryMatcher matcher = QueryMatcher.compile(query);
         
-        Pattern pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE);
+        // Keep one entry more than the page so we know whether a next page exists
+        TopCoursesCollector collector = new TopCoursesCollector(matcher, after, pageSize + 1, maxMatchesPerResult);
+        List<CourseHits> top = parallelSearchExecutor.topCourses(candidates, collector);
         
-        for (Course course : courses) {
+        List<CourseHits> page = new ArrayList<>(top);
+        page.sort(CourseHits.RANKING);
+        
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextCursor = SearchCursor.after(page.get(pageSize - 1)).encode();
+        }
+        
+        // Snippets are only built for the courses that made it onto the page
+        List<SearchResultDTO> results = new ArrayList<>(page.size());
+        for (CourseHits hits : page) {
             List<MatchDTO> matches = new ArrayList<>();
-            
-            // Search in course title and description
-            if (pattern.matcher(course.getTitle()).find()) {
-                matches.add(MatchDTO.builder()
-                        .type("course")
-                        .snippet(course.getTitle())
-                        .build());
-            }
-            
-            if (pattern.matcher(course.getDescription()).find()) {
-                matches.add(MatchDTO.builder()
-                        .type("course")
-                        .snippet(truncate(course.getDescription(), query))
-                        .build());
-            }
-            
-            // Search in topics and subtopics
-            for (Topic topic : course.getTopics()) {
-                if (pattern.matcher(topic.getTitle()).find()) {
-                    matches.add(MatchDTO.builder()
-                            .type("topic")
-                            .topicTitle(topic.getTitle())
-                            .snippet(topic.getTitle())
-                            .build());
-                }
-                
-                for (Subtopic subtopic : topic.getSubtopics()) {
-                    if (pattern.matcher(subtopic.getTitle()).find()) {
-                        matches.add(MatchDTO.builder()
-                                .type("subtopic")
-                                .topicTitle(topic.getTitle())
-                                .subtopicId(subtopic.getSubtopicId())
-                                .subtopicTitle(subtopic.getTitle())
-                                .snippet(subtopic.getTitle())
-                                .build());
-                    }
-                    
-                    if (pattern.matcher(subtopic.getContent()).find()) {
-                        matches.add(MatchDTO.builder()
-                                .type("content")
-                                .topicTitle(topic.getTitle())
-                                .subtopicId(subtopic.getSubtopicId())
-                                .subtopicTitle(subtopic.getTitle())
-                                .snippet(truncate(subtopic.getContent(), query))
-                                .build());
-                    }
-                }
-            }
-            
-            if (!matches.isEmpty()) {
-                results.add(SearchResultDTO.builder()
-                        .courseId(course.getId())
-                        .courseTitle(course.getTitle())
-                        .matches(matches)
-                        .build());
+            for (IndexedField field : hits.topFields()) {
+                matches.add(toMatch(field, matcher));
             }
+            results.add(SearchResultDTO.builder()
+                    .courseId(hits.getCourseId())
+                    .courseTitle(hits.getCourseTitle())
+                    .score(hits.getScore())
+                    .totalMatches(hits.getTotalMatches())
+                    .matches(matches)
+                    .build());
         }
         
         return SearchResponse.builder()
                 .query(query)
                 .results(results)
+                .nextCursor(nextCursor)
                 .build();
     }
     
-    private String truncate(String text, String query) {
-        if (text == null || text.length() <= 150) {
-            return text;
-        }
-        
-        int index = text.toLowerCase().indexOf(query.toLowerCase());
-        if (index == -1) {
-            return text.substring(0, 150) + "...";
-        }
-        
-        int start = Math.max(0, index - 50);
-        int end = Math.min(text.length(), index + query.length() + 100);
-        
-        String snippet = text.substring(start, end);
-        if (start > 0) snippet = "..." + snippet;
-        if (end < text.length()) snippet = snippet + "...";
-        
-        return snippet;
+    private MatchDTO toMatch(IndexedField field, QueryMatcher matcher) {
+        return switch (field.getField()) {
+            case COURSE_TITLE -> withSnippet(MatchDTO.builder(), SnippetExtractor.whole(field, matcher))
+                    .type(field.getField().getMatchType())
+                    .build();
+            case COURSE_DESCRIPTION -> withSnippet(MatchDTO.builder(), SnippetExtractor.around(field, matcher))
+                    .type(field.getField().getMatchType())
+                    .build();
+            case TOPIC_TITLE -> withSnippet(MatchDTO.builder(), SnippetExtractor.whole(field, matcher))
+                    .type(field.getField().getMatchType())
+                    .topicTitle(field.getTopicTitle())
+                    .build();
+            case SUBTOPIC_TITLE -> withSnippet(MatchDTO.builder(), SnippetExtractor.whole(field, matcher))
+                    .type(field.getField().getMatchType())
+                    .topicTitle(field.getTopicTitle())
+                    .subtopicId(field.getSubtopicId())
+                    .subtopicTitle(field.getSubtopicTitle())
+                    .build();
+            case CONTENT -> withSnippet(MatchDTO.builder(), SnippetExtractor.around(field, matcher))
+                    .type(field.getField().getMatchType())
+                    .topicTitle(field.getTopicTitle())
+                    .subtopicId(field.getSubtopicId())
+                    .subtopicTitle(field.getSubtopicTitle())
+                    .build();
+        };
+    }
+    
+    private MatchDTO.MatchDTOBuilder withSnippet(MatchDTO.MatchDTOBuilder builder, Snippet snippet) {
+        return builder
+                .snippet(snippet.getText())
+                .highlights(snippet.getHighlights());
     }
 }
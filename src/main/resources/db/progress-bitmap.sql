@@ -0,0 +1,16 @@
+-- Bitmap progress store (progress.store=bitmap), for PostgreSQL and H2.
+-- Subtopics get a dense, stable ordinal within their course; each enrollment keeps
+-- a bitmap over those ordinals, and the matching completion times in a side table.
+
+ALTER TABLE subtopics ADD COLUMN IF NOT EXISTS ordinal INTEGER;
+
+-- The course's next unused ordinal, so ordinals of removed subtopics are never given again
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS next_ordinal INTEGER;
+
+-- NULL until the enrollment's subtopic_progress rows have been imported
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS completed_bits BYTEA;
+
+CREATE TABLE IF NOT EXISTS enrollment_completion_times (
+    enrollment_id BIGINT NOT NULL PRIMARY KEY REFERENCES enrollments (id) ON DELETE CASCADE,
+    completed_at BYTEA NOT NULL
+);
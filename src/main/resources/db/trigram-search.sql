@@ -0,0 +1,16 @@
+-- Trigram indexes for search.engine=database on PostgreSQL 12+.
+-- Queries match lower-cased text with LIKE '%term%', which pg_trgm GIN indexes serve
+-- for terms of three or more characters.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Replaced by the trigram indexes; dropping a column drops its GIN index
+ALTER TABLE courses DROP COLUMN IF EXISTS search_vector;
+ALTER TABLE topics DROP COLUMN IF EXISTS search_vector;
+ALTER TABLE subtopics DROP COLUMN IF EXISTS search_vector;
+
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_description_trgm ON courses USING GIN (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_topics_title_trgm ON topics USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_subtopics_title_trgm ON subtopics USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_subtopics_content_trgm ON subtopics USING GIN (lower(content) gin_trgm_ops);
@@ -0,0 +1,10 @@
+package com.courseplatform.catalog;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "catalog.source=snapshot",
+        "spring.datasource.url=jdbc:h2:mem:paging-snapshot"
+})
+class CatalogStorePagingTest extends CoursePagingTest {
+}
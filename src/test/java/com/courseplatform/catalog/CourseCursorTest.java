@@ -0,0 +1,45 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseCursorTest {
+    
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void everySortRoundTrips() {
+        CourseCursor byId = new CourseCursor(CourseSort.ID, "physics-101", null, 0);
+        CourseCursor byTitle = new CourseCursor(CourseSort.TITLE, "physics-101", "Física | Mécanique", 0);
+        CourseCursor byEnrollments = new CourseCursor(CourseSort.ENROLLMENTS, "physics-101", null, 1_234_567_890_123L);
+        
+        assertThat(CourseCursor.decode(byId.encode())).isEqualTo(byId);
+        assertThat(CourseCursor.decode(byTitle.encode())).isEqualTo(byTitle);
+        assertThat(CourseCursor.decode(byEnrollments.encode())).isEqualTo(byEnrollments);
+    }
+    
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = new CourseCursor(CourseSort.TITLE, "c", "?>?>?>&=/+", 0).encode();
+        
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+    
+    @Test
+    void malformedCursorsAreBadRequests() {
+        assertThatThrownBy(() -> CourseCursor.decode("not base64!")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode(encode("TITLE"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode(encode("TITLE|c"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode(encode("POPULARITY|c|1"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode(encode("ENROLLMENTS|c|many"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CourseCursor.decode("")).isInstanceOf(BadRequestException.class);
+    }
+}
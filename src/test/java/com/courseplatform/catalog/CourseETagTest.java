@@ -0,0 +1,92 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:course-etag")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CourseETagTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = Course.builder().id("etag-101").title("Tagged").description("Cached by clients").build();
+            Topic topic = Topic.builder().topicId("tags").title("Tags").build();
+            // Long enough for the detail to be kept gzipped
+            topic.addSubtopic(Subtopic.builder().subtopicId("etag-1").title("Strong tags")
+                    .content("An entity tag names one representation. ".repeat(60)).build());
+            course.addTopic(topic);
+            courseRepository.save(course);
+        });
+    }
+    
+    @Test
+    void unknownCoursesAreNotFoundWhateverTheClientCached() throws Exception {
+        mockMvc.perform(get("/api/courses/missing").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/courses/missing").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/courses/etag-101/subtopics/missing").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void gzipAndIdentityBodiesHaveDifferentTags() throws Exception {
+        String identity = mockMvc.perform(get("/api/courses/etag-101"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String gzip = mockMvc.perform(get("/api/courses/etag-101").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(identity).isNotNull().isNotEqualTo(gzip);
+        
+        mockMvc.perform(get("/api/courses/etag-101").header(HttpHeaders.IF_NONE_MATCH, identity))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/courses/etag-101").header(HttpHeaders.IF_NONE_MATCH, identity)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/courses/etag-101").header(HttpHeaders.IF_NONE_MATCH, gzip)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isNotModified());
+    }
+    
+    @Test
+    void noTagsBeforeTheCatalogIsHashed() {
+        CatalogVersion version = new CatalogVersion(mock(CatalogLoader.class), mock(PlatformTransactionManager.class));
+        
+        assertThat(version.etag()).isNull();
+        assertThat(version.etag("etag-101")).isNull();
+    }
+}
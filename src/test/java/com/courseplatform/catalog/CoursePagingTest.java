@@ -0,0 +1,123 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Enrollment;
+import com.courseplatform.entity.User;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.EnrollmentRepository;
+import com.courseplatform.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging through {@code GET /api/courses}, run against each
+ * {@link CourseCatalog} by a subclass. Pages of two are chosen so that ties in
+ * the sort key fall across page boundaries.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class CoursePagingTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Course> courses = courseRepository.saveAll(List.of(
+                    Course.builder().id("k1").title("Keyset Beta").build(),
+                    Course.builder().id("k2").title("Keyset Alpha").build(),
+                    Course.builder().id("k3").title("Keyset Alpha").build(),
+                    Course.builder().id("k4").title("Keyset Alpha").build(),
+                    Course.builder().id("k5").title("Keyset Gamma").build()));
+            
+            // k1: 3, k2: 1, k3: 1, k4: 0, k5: 0
+            int[] enrollments = {3, 1, 1, 0, 0};
+            for (int c = 0; c < courses.size(); c++) {
+                for (int u = 0; u < enrollments[c]; u++) {
+                    User user = userRepository.save(User.builder()
+                            .email("paging-" + c + "-" + u + "@example.com").password("x").build());
+                    enrollmentRepository.save(Enrollment.builder()
+                            .user(user).course(courses.get(c)).enrolledAt(LocalDateTime.now()).build());
+                }
+            }
+        });
+    }
+    
+    @Test
+    void idSortPagesInIdOrder() throws Exception {
+        assertThat(pages("id")).containsExactly(List.of("k1", "k2"), List.of("k3", "k4"), List.of("k5"));
+    }
+    
+    @Test
+    void titleTiesAreBrokenById() throws Exception {
+        assertThat(pages("title")).containsExactly(List.of("k2", "k3"), List.of("k4", "k1"), List.of("k5"));
+    }
+    
+    @Test
+    void enrollmentTiesAreBrokenById() throws Exception {
+        assertThat(pages("enrollments")).containsExactly(List.of("k1", "k2"), List.of("k3", "k4"), List.of("k5"));
+    }
+    
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/courses").param("sort", "title").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/courses").param("sort", "enrollments")
+                        .param("cursor", new CourseCursor(CourseSort.TITLE, "k1", "Keyset Beta", 0).encode()))
+                .andExpect(status().isBadRequest());
+    }
+    
+    // Follows nextCursor from the first page and returns the course ids of every page
+    private List<List<String>> pages(String sort) throws Exception {
+        List<List<String>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/courses").param("sort", sort).param("title", "keyset").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            
+            List<String> ids = new ArrayList<>();
+            page.get("courses").forEach(course -> ids.add(course.get("id").asText()));
+            pages.add(ids);
+            cursor = page.path("nextCursor").isTextual() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return pages;
+    }
+}
@@ -0,0 +1,98 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.entity.User;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import com.courseplatform.repository.UserRepository;
+import com.courseplatform.service.EnrollmentService;
+import com.courseplatform.service.ProgressService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "progress.store=bitmap",
+        "spring.datasource.url=jdbc:h2:mem:bitmap-store"
+})
+@ActiveProfiles("test")
+class BitmapProgressStoreTest {
+    
+    @Autowired
+    private ProgressStore progressStore;
+    
+    @Autowired
+    private EnrollmentService enrollmentService;
+    
+    @Autowired
+    private ProgressService progressService;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private TopicRepository topicRepository;
+    
+    @Autowired
+    private SubtopicRepository subtopicRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void removedSubtopicsLoseTheirCompletionsAndTheirOrdinals() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = Course.builder().id("bits-101").title("Bits").build();
+            Topic topic = Topic.builder().topicId("bits").title("Bits").build();
+            for (String subtopicId : List.of("bits-a", "bits-b", "bits-c")) {
+                topic.addSubtopic(Subtopic.builder().subtopicId(subtopicId).title(subtopicId).content(subtopicId).build());
+            }
+            course.addTopic(topic);
+            courseRepository.save(course);
+            userRepository.save(User.builder().email("bits@example.com").password("x").build());
+        });
+        enrollmentService.enrollUser("bits@example.com", "bits-101");
+        progressService.markSubtopicComplete("bits@example.com", "bits-b");
+        progressService.markSubtopicComplete("bits@example.com", "bits-c");
+        long userId = userRepository.findByEmail("bits@example.com").orElseThrow().getId();
+        assertThat(progressStore.countCompleted(userId, "bits-101")).isEqualTo(2);
+        
+        // The highest ordinal goes, then a new subtopic arrives
+        transactionTemplate.executeWithoutResult(status -> subtopicRepository.delete(subtopic("bits-c")));
+        transactionTemplate.executeWithoutResult(status -> {
+            Topic topic = topicRepository.findById(subtopic("bits-a").getTopic().getId()).orElseThrow();
+            topic.addSubtopic(Subtopic.builder().subtopicId("bits-d").title("bits-d").content("bits-d").build());
+            topicRepository.save(topic);
+        });
+        
+        assertThat(progressStore.countCompleted(userId, "bits-101")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT completed_count FROM enrollments WHERE user_id = ? AND course_id = ?",
+                Integer.class, userId, "bits-101")).isEqualTo(1);
+        assertThat(progressStore.completedAt(userId, subtopic("bits-d").getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT ordinal FROM subtopics WHERE subtopic_id = ?",
+                Integer.class, "bits-d")).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_ordinal FROM courses WHERE id = ?",
+                Integer.class, "bits-101")).isEqualTo(4);
+    }
+    
+    private Subtopic subtopic(String subtopicId) {
+        return subtopicRepository.findBySubtopicId(subtopicId).orElseThrow();
+    }
+}
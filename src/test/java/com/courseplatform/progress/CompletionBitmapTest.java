@@ -0,0 +1,92 @@
+package com.courseplatform.progress;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompletionBitmapTest {
+    
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 9, 30, 15, 123_456_000);
+    
+    @Test
+    void timesFollowTheirOrdinalsWhenAddedOutOfOrder() {
+        CompletionBitmap bitmap = CompletionBitmap.empty();
+        assertThat(bitmap.add(40, MONDAY.plusDays(2))).isTrue();
+        assertThat(bitmap.add(3, MONDAY)).isTrue();
+        assertThat(bitmap.add(17, MONDAY.plusDays(1))).isTrue();
+        
+        assertThat(bitmap.count()).isEqualTo(3);
+        assertThat(bitmap.completedAt(3)).isEqualTo(MONDAY);
+        assertThat(bitmap.completedAt(17)).isEqualTo(MONDAY.plusDays(1));
+        assertThat(bitmap.completedAt(40)).isEqualTo(MONDAY.plusDays(2));
+        assertThat(bitmap.completedAt(4)).isNull();
+        
+        List<Integer> ordinals = new ArrayList<>();
+        bitmap.forEach((completedAt, ordinal) -> ordinals.add(ordinal));
+        assertThat(ordinals).containsExactly(3, 17, 40);
+    }
+    
+    @Test
+    void repeatedCompletionKeepsTheFirstTime() {
+        CompletionBitmap bitmap = CompletionBitmap.empty();
+        bitmap.add(5, MONDAY);
+        
+        assertThat(bitmap.add(5, MONDAY.plusHours(1))).isFalse();
+        assertThat(bitmap.completedAt(5)).isEqualTo(MONDAY);
+        assertThat(bitmap.count()).isEqualTo(1);
+    }
+    
+    @Test
+    void retainDropsTheTimesOfRemovedOrdinals() {
+        CompletionBitmap bitmap = CompletionBitmap.empty();
+        bitmap.add(2, MONDAY);
+        bitmap.add(5, MONDAY.plusDays(1));
+        bitmap.add(9, MONDAY.plusDays(2));
+        BitSet live = new BitSet();
+        live.set(0, 9);
+        
+        assertThat(bitmap.retain(live)).isTrue();
+        assertThat(bitmap.retain(live)).isFalse();
+        assertThat(bitmap.count()).isEqualTo(2);
+        assertThat(bitmap.completedAt(9)).isNull();
+        assertThat(bitmap.completedAt(5)).isEqualTo(MONDAY.plusDays(1));
+        assertThat(CompletionBitmap.decode(bitmap.encodeBits(), bitmap.encodeTimes()).completedAt(2)).isEqualTo(MONDAY);
+    }
+    
+    @Test
+    void storedFormRoundTripsWithMicrosecondPrecision() {
+        CompletionBitmap bitmap = CompletionBitmap.empty();
+        bitmap.add(0, MONDAY);
+        bitmap.add(200, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+        
+        byte[] bits = bitmap.encodeBits();
+        assertThat(bits).hasSize(26);
+        assertThat(bitmap.encodeTimes()).hasSize(2 * Long.BYTES);
+        
+        CompletionBitmap decoded = CompletionBitmap.decode(bits, bitmap.encodeTimes());
+        assertThat(decoded.completedAt(0)).isEqualTo(MONDAY);
+        assertThat(decoded.completedAt(200)).isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+        assertThat(CompletionBitmap.bits(bits).cardinality()).isEqualTo(2);
+    }
+    
+    @Test
+    void nullStoredFormIsEmpty() {
+        assertThat(CompletionBitmap.decode(null, null).count()).isZero();
+        assertThat(CompletionBitmap.bits(null).isEmpty()).isTrue();
+    }
+    
+    @Test
+    void mismatchedTimesAreRejected() {
+        CompletionBitmap bitmap = CompletionBitmap.empty();
+        bitmap.add(1, MONDAY);
+        
+        assertThatThrownBy(() -> CompletionBitmap.decode(bitmap.encodeBits(), new byte[0]))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.courseplatform.progress;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CompletionWriteBehindTest {
+    
+    @TempDir
+    Path journalDirectory;
+    
+    private final ProgressStore progressStore = mock(ProgressStore.class);
+    private CompletionWriteBehind writeBehind;
+    
+    @BeforeEach
+    void start() throws IOException {
+        // Flushed by the tests only
+        writeBehind = new CompletionWriteBehind(progressStore, mock(PlatformTransactionManager.class),
+                true, 3_600_000, 500, journalDirectory.toString(), false);
+    }
+    
+    @AfterEach
+    void stop() throws IOException {
+        writeBehind.shutdown();
+    }
+    
+    @Test
+    void failedFlushKeepsCompletionsBufferedUntilTheNextOne() {
+        LocalDateTime completedAt = writeBehind.complete(1, 10);
+        doThrow(new CannotGetJdbcConnectionException("Database is down"))
+                .when(progressStore).insertMissing(anyList());
+        
+        assertThatThrownBy(writeBehind::flush).isInstanceOf(CannotGetJdbcConnectionException.class);
+        assertThat(writeBehind.buffered(1)).containsEntry(10L, completedAt).hasSize(1);
+        assertThat(writeBehind.complete(1, 10)).isEqualTo(completedAt);
+        
+        doReturn(1).when(progressStore).insertMissing(anyList());
+        writeBehind.flush();
+        
+        assertThat(writeBehind.buffered(1)).isEmpty();
+        verify(progressStore, times(2)).insertMissing(List.of(new Completion(1, 10, completedAt)));
+    }
+    
+    @Test
+    void concurrentCompletionsAreJournaledOncePerSubtopic() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<LocalDateTime>> shared = new ArrayList<>();
+        try {
+            for (long thread = 0; thread < 16; thread++) {
+                long own = 100 + thread;
+                shared.add(pool.submit(() -> {
+                    writeBehind.complete(3, own);
+                    return writeBehind.complete(3, 1);
+                }));
+            }
+            Set<LocalDateTime> times = new HashSet<>();
+            for (Future<LocalDateTime> time : shared) {
+                times.add(time.get());
+            }
+            assertThat(times).hasSize(1);
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(writeBehind.buffered(3)).hasSize(17);
+        
+        List<ProgressJournal.Entry> journaled = new ArrayList<>();
+        try (Stream<Path> segments = Files.list(journalDirectory)) {
+            for (Path segment : segments.toList()) {
+                ProgressJournal.readSegment(segment, journaled);
+            }
+        }
+        assertThat(journaled).hasSize(17);
+    }
+    
+    @Test
+    void refusedRowIsRejectedWithoutHoldingBackTheRest() throws IOException {
+        for (long subtopicId = 1; subtopicId <= 120; subtopicId++) {
+            writeBehind.complete(7, subtopicId);
+        }
+        Set<Long> written = new HashSet<>();
+        doAnswer(invocation -> {
+            List<Completion> completions = invocation.getArgument(0);
+            if (completions.stream().anyMatch(completion -> completion.getSubtopicId() == 13)) {
+                throw new DataIntegrityViolationException("Subtopic 13 no longer exists");
+            }
+            completions.forEach(completion -> written.add(completion.getSubtopicId()));
+            return completions.size();
+        }).when(progressStore).insertMissing(anyList());
+        
+        writeBehind.flush();
+        
+        assertThat(written).hasSize(119).doesNotContain(13L);
+        assertThat(writeBehind.buffered(7)).isEmpty();
+        
+        List<ProgressJournal.Entry> rejected = new ArrayList<>();
+        ProgressJournal.readSegment(journalDirectory.resolve("rejected.journal"), rejected);
+        assertThat(rejected).extracting(ProgressJournal.Entry::getSubtopicId).containsExactly(13L);
+        
+        writeBehind.shutdown();
+        try (ProgressJournal journal = new ProgressJournal(journalDirectory, false)) {
+            assertThat(journal.open()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.courseplatform.progress;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressJournalTest {
+    
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 9, 30, 15, 123_456_000);
+    private static final int RECORD_BYTES = 28;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void appendedRecordsAreReplayedInOrder() throws IOException {
+        try (ProgressJournal journal = open()) {
+            journal.append(1, 10, MONDAY);
+            journal.append(1, 11, MONDAY.plusSeconds(1));
+        }
+        
+        assertThat(replay()).containsExactly(
+                new ProgressJournal.Entry(1, 10, MONDAY),
+                new ProgressJournal.Entry(1, 11, MONDAY.plusSeconds(1)));
+    }
+    
+    @Test
+    void replayStopsAtATornRecord() throws IOException {
+        try (ProgressJournal journal = open()) {
+            journal.append(1, 10, MONDAY);
+            journal.append(1, 11, MONDAY);
+            journal.append(1, 12, MONDAY);
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(3 * RECORD_BYTES - 5);
+        }
+        
+        assertThat(replay()).extracting(ProgressJournal.Entry::getSubtopicId).containsExactly(10L, 11L);
+    }
+    
+    @Test
+    void replayStopsAtACorruptRecordButReadsLaterSegments() throws IOException {
+        try (ProgressJournal journal = open()) {
+            journal.append(1, 10, MONDAY);
+            journal.append(1, 11, MONDAY);
+            journal.append(1, 12, MONDAY);
+            journal.rotate();
+            journal.append(1, 13, MONDAY);
+        }
+        Path first = segments().get(0);
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[RECORD_BYTES + 3] ^= 0x01;
+        Files.write(first, bytes);
+        
+        assertThat(replay()).extracting(ProgressJournal.Entry::getSubtopicId).containsExactly(10L, 13L);
+    }
+    
+    @Test
+    void deleteBeforeDropsOnlyRotatedSegments() throws IOException {
+        try (ProgressJournal journal = open()) {
+            journal.append(1, 10, MONDAY);
+            long active = journal.rotate();
+            journal.append(1, 11, MONDAY);
+            journal.deleteBefore(active);
+        }
+        
+        assertThat(replay()).extracting(ProgressJournal.Entry::getSubtopicId).containsExactly(11L);
+    }
+    
+    @Test
+    void openingWithNothingToReplayLeavesOneSegment() throws IOException {
+        open().close();
+        open().close();
+        open().close();
+        
+        assertThat(segments()).hasSize(1);
+    }
+    
+    @Test
+    void rejectedEntriesAreKeptButNotReplayed() throws IOException {
+        try (ProgressJournal journal = open()) {
+            journal.reject(List.of(new ProgressJournal.Entry(2, 20, MONDAY)));
+            journal.reject(List.of(new ProgressJournal.Entry(2, 21, MONDAY)));
+        }
+        
+        assertThat(replay()).isEmpty();
+        List<ProgressJournal.Entry> rejected = new ArrayList<>();
+        ProgressJournal.readSegment(directory.resolve("rejected.journal"), rejected);
+        assertThat(rejected).extracting(ProgressJournal.Entry::getSubtopicId).containsExactly(20L, 21L);
+    }
+    
+    private ProgressJournal open() throws IOException {
+        ProgressJournal journal = new ProgressJournal(directory, false);
+        journal.open();
+        return journal;
+    }
+    
+    private List<ProgressJournal.Entry> replay() throws IOException {
+        try (ProgressJournal journal = new ProgressJournal(directory, false)) {
+            return journal.open();
+        }
+    }
+    
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("progress-")).sorted().toList();
+        }
+    }
+}
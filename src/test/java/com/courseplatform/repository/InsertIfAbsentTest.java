@@ -0,0 +1,98 @@
+package com.courseplatform.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InsertIfAbsentTest {
+    
+    private static final List<String> COLUMNS = List.of("user_id BIGINT", "course_id VARCHAR");
+    private static final List<String> KEY = List.of("user_id", "course_id");
+    private static final List<String> RETURNING = List.of("id");
+    private static final RowMapper<Long> ID = (resultSet, row) -> resultSet.getLong(1);
+    
+    private static final String H2_TWO_ROWS = "SELECT id FROM FINAL TABLE (MERGE INTO enrollments t USING (VALUES "
+            + "(CAST(? AS BIGINT), CAST(? AS VARCHAR)), (CAST(? AS BIGINT), CAST(? AS VARCHAR))) s (user_id, course_id) "
+            + "ON t.user_id = s.user_id AND t.course_id = s.course_id "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, course_id) VALUES (s.user_id, s.course_id))";
+    private static final String H2_ONE_ROW = "SELECT id FROM FINAL TABLE (MERGE INTO enrollments t USING (VALUES "
+            + "(CAST(? AS BIGINT), CAST(? AS VARCHAR))) s (user_id, course_id) "
+            + "ON t.user_id = s.user_id AND t.course_id = s.course_id "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, course_id) VALUES (s.user_id, s.course_id))";
+    
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    
+    private InsertIfAbsent on(String product) throws SQLException, MetaDataAccessException {
+        DataSource dataSource = mock(DataSource.class, RETURNS_DEEP_STUBS);
+        when(dataSource.getConnection().getMetaData().getDatabaseProductName()).thenReturn(product);
+        return new InsertIfAbsent(jdbcTemplate, dataSource);
+    }
+    
+    @Test
+    void postgresInsertsOnConflictDoNothing() throws Exception {
+        on("PostgreSQL").insert("enrollments", COLUMNS, KEY, RETURNING, 2, ID, 1L, "physics-101", 2L, "math-101");
+        
+        verify(jdbcTemplate).query(
+                "INSERT INTO enrollments (user_id, course_id) VALUES (?, ?), (?, ?) "
+                        + "ON CONFLICT (user_id, course_id) DO NOTHING RETURNING id",
+                ID, 1L, "physics-101", 2L, "math-101");
+    }
+    
+    @Test
+    void h2MergesFromCastValues() throws Exception {
+        on("H2").insert("enrollments", COLUMNS, KEY, RETURNING, 2, ID, 1L, "physics-101", 2L, "math-101");
+        
+        verify(jdbcTemplate).query(H2_TWO_ROWS, ID, 1L, "physics-101", 2L, "math-101");
+    }
+    
+    @Test
+    void h2FallsBackToSingleRowsAndReportsCollidingOnesAsExisting() throws Exception {
+        InsertIfAbsent insertIfAbsent = on("H2");
+        doThrow(new DuplicateKeyException("lost the race"))
+                .when(jdbcTemplate).query(eq(H2_TWO_ROWS), eq(ID), any(Object[].class));
+        doReturn(List.of(41L)).when(jdbcTemplate).query(H2_ONE_ROW, ID, 1L, "physics-101");
+        doThrow(new DuplicateKeyException("still colliding"))
+                .when(jdbcTemplate).query(H2_ONE_ROW, ID, 2L, "math-101");
+        
+        List<Long> inserted = insertIfAbsent.insert("enrollments", COLUMNS, KEY, RETURNING, 2, ID,
+                1L, "physics-101", 2L, "math-101");
+        
+        assertThat(inserted).containsExactly(41L);
+        verify(jdbcTemplate, times(3)).query(H2_TWO_ROWS, ID, 1L, "physics-101", 2L, "math-101");
+    }
+    
+    @Test
+    void postgresDuplicateIsNotRetried() throws Exception {
+        InsertIfAbsent insertIfAbsent = on("PostgreSQL");
+        doThrow(new DuplicateKeyException("unique index on another column"))
+                .when(jdbcTemplate).query(anyString(), eq(ID), any(Object[].class));
+        
+        assertThatThrownBy(() -> insertIfAbsent.insert("enrollments", COLUMNS, KEY, RETURNING, 1, ID, 1L, "physics-101"))
+                .isInstanceOf(DuplicateKeyException.class);
+        verify(jdbcTemplate, times(1)).query(anyString(), eq(ID), any(Object[].class));
+    }
+    
+    @Test
+    void otherDatabasesAreRefused() {
+        assertThatThrownBy(() -> on("MySQL")).isInstanceOf(IllegalStateException.class);
+    }
+}
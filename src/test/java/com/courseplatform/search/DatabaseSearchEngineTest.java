@@ -0,0 +1,104 @@
+package com.courseplatform.search;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same queries through the database engine and the in-memory index
+ * and compares the fields each yields once verified by {@link QueryMatcher}.
+ */
+@SpringBootTest(properties = {
+        "search.engine=database",
+        "spring.datasource.url=jdbc:h2:mem:database-search"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DatabaseSearchEngineTest {
+    
+    @Autowired
+    private SearchEngine databaseEngine;
+    
+    @Autowired
+    private SearchDocumentLoader documentLoader;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private SearchIndex index;
+    
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            courseRepository.save(course("js-101", "JavaScript Basics", "Scripting the browser, 100% hands-on",
+                    topic("Variables", subtopic("js-let", "Let and Const", "The let keyword scopes a variable to its block."),
+                            subtopic("js-names", "Naming", "Prefer camelCase over snake_case in JavaScript.")),
+                    topic("Functions", subtopic("js-arrow", "Arrow Functions", "Arrow functions keep the outer this."))));
+            courseRepository.save(course("py-101", "Python Scripting", "Automate the boring stuff",
+                    topic("Basics", subtopic("py-names", "Naming", "Python uses snake_case for names.")),
+                    topic("The Standard Library", subtopic("py-os", "Files", "Read and write files with pathlib."))));
+        });
+        
+        index = new SearchIndex(documentLoader);
+        transactionTemplate.executeWithoutResult(status -> index.build());
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"script", "the", "snake_case", "100%", "\"the outer\"", "naming case", "ARROW", "let", "nothing-like-this"})
+    void databaseEngineMatchesTheSameFieldsAsTheIndex(String query) {
+        assertThat(verified(databaseEngine, query)).isEqualTo(verified(index, query));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"script", "the"})
+    void midWordFragmentsAndStopWordsAreFound(String query) {
+        assertThat(verified(databaseEngine, query)).hasSizeGreaterThan(2);
+    }
+    
+    // Field ids differ between engines, so fields are compared by what they describe
+    private static List<String> verified(SearchEngine engine, String query) {
+        QueryMatcher matcher = QueryMatcher.compile(query);
+        return engine.candidates(query).stream()
+                .filter(field -> matcher.countMatches(field.getFoldedText()) > 0)
+                .map(field -> field.getField() + "|" + field.getCourseId() + "|" + field.getCourseTitle() + "|"
+                        + field.getTopicTitle() + "|" + field.getSubtopicId() + "|" + field.getSubtopicTitle() + "|"
+                        + field.getText())
+                .toList();
+    }
+    
+    private static Course course(String id, String title, String description, Topic... topics) {
+        Course course = Course.builder().id(id).title(title).description(description).build();
+        for (Topic topic : topics) {
+            course.addTopic(topic);
+        }
+        return course;
+    }
+    
+    private static Topic topic(String title, Subtopic... subtopics) {
+        Topic topic = Topic.builder().topicId(title.toLowerCase().replace(' ', '-')).title(title).build();
+        for (Subtopic subtopic : subtopics) {
+            topic.addSubtopic(subtopic);
+        }
+        return topic;
+    }
+    
+    private static Subtopic subtopic(String id, String title, String content) {
+        return Subtopic.builder().subtopicId(id).title(title).content(content).build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.courseplatform.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyCorrectorTest {
+    
+    private final FuzzyCorrector corrector = new FuzzyCorrector(
+            new String[]{"acceleration", "velocity", "momentum", "moment", "speed"},
+            new int[]{3, 5, 2, 1, 4});
+    
+    @Test
+    void correctsCommonMisspellings() {
+        assertThat(corrector.closest("accelaration")).isEqualTo("acceleration");
+        assertThat(corrector.closest("momemtum")).isEqualTo("momentum");
+        assertThat(corrector.closest("velcity")).isEqualTo("velocity");
+    }
+    
+    @Test
+    void shortTermsAllowOnlyOneEdit() {
+        assertThat(corrector.closest("sped")).isEqualTo("speed");
+        assertThat(corrector.closest("spd")).isNull();
+    }
+    
+    @Test
+    void unrelatedTermsAreNotCorrected() {
+        assertThat(corrector.closest("photosynthesis")).isNull();
+    }
+    
+    @Test
+    void boundedDistanceStopsAboveTheBound() {
+        assertThat(FuzzyCorrector.boundedDistance("kitten", "sitting", 5)).isEqualTo(3);
+        assertThat(FuzzyCorrector.boundedDistance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(FuzzyCorrector.boundedDistance("same", "same", 0)).isZero();
+    }
+}
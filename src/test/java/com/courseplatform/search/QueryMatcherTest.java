@@ -0,0 +1,80 @@
+package com.courseplatform.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryMatcherTest {
+    
+    private static int count(String query, String text) {
+        return QueryMatcher.compile(query).countMatches(SearchTokenizer.fold(text));
+    }
+    
+    @Test
+    void singleTermIsMatchedLiterallyAndCaseInsensitively() {
+        assertThat(count("Velocity", "velocity is speed with VELOCITY direction")).isEqualTo(2);
+        assertThat(count("m/s", "measured in m/s or m/s²")).isEqualTo(2);
+        assertThat(count("acceleration", "velocity")).isZero();
+    }
+    
+    @Test
+    void regexMetacharactersAreNotInterpreted() {
+        assertThat(count("(a+)+$", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!")).isZero();
+        assertThat(count("a.c", "abc")).isZero();
+        assertThat(count("a.c", "see a.c here")).isEqualTo(1);
+        assertThat(count("[", "array[0]")).isEqualTo(1);
+    }
+    
+    @Test
+    void everyTermMustBePresent() {
+        assertThat(count("rate change", "the rate of change")).isEqualTo(2);
+        assertThat(count("rate velocity", "the rate of change")).isZero();
+    }
+    
+    @Test
+    void overlappingAndNestedTermsAreCounted() {
+        assertThat(count("he she hers", "ushers")).isEqualTo(3);
+        assertThat(count("ab b", "abab")).isEqualTo(4);
+    }
+    
+    @Test
+    void selfOverlappingTermIsCountedTheSameByBothMatchers() {
+        assertThat(count("aa", "aaaa")).isEqualTo(3);
+        assertThat(count("aa zz", "aaaa zz")).isEqualTo(4);
+        
+        List<int[]> matches = new ArrayList<>();
+        QueryMatcher.compile("aa").forEachMatch("aaaa", 0, 4, (start, end) -> {
+            matches.add(new int[]{start, end});
+            return true;
+        });
+        assertThat(matches).containsExactly(new int[]{0, 2}, new int[]{1, 3}, new int[]{2, 4});
+    }
+    
+    @Test
+    void quotedPhraseIsOneTerm() {
+        assertThat(QueryMatcher.parseTerms("\"rate of change\" slope")).containsExactly("rate of change", "slope");
+        assertThat(count("\"rate of change\"", "rate of change")).isEqualTo(1);
+        assertThat(count("\"rate of change\"", "change of rate")).isZero();
+    }
+    
+    @Test
+    void matchesAreReportedWithinTheRequestedRange() {
+        String text = SearchTokenizer.fold("Speed and Velocity; velocity has direction");
+        List<int[]> matches = new ArrayList<>();
+        QueryMatcher.compile("velocity direction").forEachMatch(text, 10, text.length(), (start, end) -> {
+            matches.add(new int[]{start, end});
+            return true;
+        });
+        
+        assertThat(matches).containsExactly(new int[]{10, 18}, new int[]{20, 28}, new int[]{33, 42});
+    }
+    
+    @Test
+    void blankQueryMatchesNothing() {
+        assertThat(QueryMatcher.parseTerms("  \"\"  ")).isEqualTo(List.of());
+        assertThat(count("\"\"", "anything")).isZero();
+    }
+}
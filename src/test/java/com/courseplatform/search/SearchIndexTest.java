@@ -0,0 +1,58 @@
+package com.courseplatform.search;
+
+import com.courseplatform.search.SearchDocumentLoader.CourseDocument;
+import com.courseplatform.search.SearchDocumentLoader.SubtopicDocument;
+import com.courseplatform.search.SearchDocumentLoader.TopicDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexTest {
+    
+    private static final List<CourseDocument> DOCUMENTS = List.of(
+            new CourseDocument("js-101", "JavaScript Basics", "Scripting the browser", List.of(
+                    new TopicDocument("Variables", List.of(
+                            new SubtopicDocument("js-let", "Let and Const", "The let keyword scopes a variable."))),
+                    new TopicDocument("Functions", List.of(
+                            new SubtopicDocument("js-arrow", "Arrow Functions", "Arrows keep the outer this."))))),
+            new CourseDocument("py-101", "Python Scripting", "Automate the boring stuff", List.of(
+                    new TopicDocument("Basics", List.of(
+                            new SubtopicDocument("py-names", "Naming", "Python uses snake_case for names."))))));
+    
+    private SearchIndex index;
+    
+    @BeforeEach
+    void build() {
+        SearchDocumentLoader loader = mock(SearchDocumentLoader.class);
+        when(loader.loadAll()).thenReturn(DOCUMENTS);
+        index = new SearchIndex(loader);
+        index.build();
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"s", "sc", "scr", "script", "avascri", "the arrow", "rrow", "case names", "xyz", "scriptz"})
+    void candidatesAreTheFieldsWhoseTermsContainEveryQueryTerm(String query) {
+        List<String> queryTerms = List.copyOf(SearchTokenizer.terms(query));
+        List<IndexedField> expected = SearchDocumentLoader.toFields(DOCUMENTS).stream()
+                .filter(field -> queryTerms.stream().allMatch(queryTerm -> SearchTokenizer.terms(field.getFoldedText())
+                        .stream().anyMatch(term -> term.contains(queryTerm))))
+                .toList();
+        
+        assertThat(index.candidates(query)).extracting(IndexedField::getId)
+                .containsExactlyElementsOf(expected.stream().map(IndexedField::getId).toList());
+    }
+    
+    @Test
+    void fragmentsOfIndexedTermsAreNotCorrected() {
+        assertThat(index.correct("scri")).isNull();
+        assertThat(index.correct("avascript")).isNull();
+        assertThat(index.correct("javascrpt basics")).isEqualTo("javascript basics");
+    }
+}
@@ -0,0 +1,114 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.dto.response.SuggestionDTO;
+import com.courseplatform.repository.EnrollmentRepository;
+import com.courseplatform.search.SearchDocumentLoader.CourseDocument;
+import com.courseplatform.search.SearchDocumentLoader.SubtopicDocument;
+import com.courseplatform.search.SearchDocumentLoader.TopicDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TitleSuggesterTest {
+    
+    private static final List<String> PREFIXES = List.of("j", "ja", "s", "sc", "script", "f", "fun", "p", "n", "new", "b");
+    
+    private final SearchDocumentLoader loader = mock(SearchDocumentLoader.class);
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    
+    private List<CourseDocument> catalog;
+    private TitleSuggester suggester;
+    
+    @BeforeEach
+    void build() {
+        catalog = new ArrayList<>(List.of(
+                course("js-101", "JavaScript Basics", topic("Functions", subtopic("js-arrow", "Arrow Functions"),
+                        subtopic("js-scope", "Scope"))),
+                course("py-101", "Python Scripting", topic("Basics", subtopic("py-names", "Naming"),
+                        subtopic("py-scripts", "Scripts")))));
+        when(loader.loadAll()).thenAnswer(invocation -> List.copyOf(catalog));
+        when(enrollmentRepository.countEnrollmentsAndCompletionsByCourse()).thenReturn(List.of(
+                new Object[]{"js-101", 4L, 12L},
+                new Object[]{"py-101", 1L, null}));
+        suggester = new TitleSuggester(loader, enrollmentRepository, 3, 0);
+        suggester.onStartup();
+    }
+    
+    @Test
+    void popularityComesFromEnrollmentAndCompletionCounters() {
+        assertThat(suggester.suggest("script", 10)).extracting(SuggestionDTO::getText)
+                .containsExactly("Python Scripting", "Scripts");
+        assertThat(suggester.suggest("s", 10)).extracting(SuggestionDTO::getText)
+                .containsExactly("Python Scripting", "Scope", "Scripts");
+    }
+    
+    @Test
+    void catalogChangesReloadOnlyTheChangedCourses() {
+        catalog.set(1, course("py-101", "Python Notebooks", topic("Basics", subtopic("py-names", "Naming"))));
+        catalog.add(course("fn-101", "Functional Programming", topic("Functors", subtopic("fn-map", "Mapping"))));
+        when(loader.load(Set.of("py-101", "fn-101"))).thenReturn(catalog.subList(1, 3));
+        
+        suggester.onCatalogChanged(new CatalogChangedEvent(Set.of("py-101", "fn-101")));
+        
+        verify(loader, times(1)).loadAll();
+        assertThat(suggester.suggest("script", 10)).isEmpty();
+        assertThat(suggestions()).isEqualTo(rebuilt());
+    }
+    
+    @Test
+    void removedCoursesLeaveTheTrie() {
+        catalog.remove(0);
+        when(loader.load(Set.of("js-101"))).thenReturn(List.of());
+        
+        suggester.onCatalogChanged(new CatalogChangedEvent(Set.of("js-101")));
+        
+        assertThat(suggester.suggest("ja", 10)).isEmpty();
+        assertThat(suggester.suggest("f", 10)).isEmpty();
+        assertThat(suggestions()).isEqualTo(rebuilt());
+    }
+    
+    @Test
+    void refreshReranksWithoutReloadingTheCatalog() {
+        when(enrollmentRepository.countEnrollmentsAndCompletionsByCourse()).thenReturn(List.of(
+                new Object[]{"js-101", 0L, 0L},
+                new Object[]{"py-101", 9L, 40L}));
+        
+        suggester.refreshPopularity();
+        
+        verify(loader, times(1)).loadAll();
+        assertThat(suggester.suggest("s", 10)).extracting(SuggestionDTO::getText)
+                .containsExactly("Python Scripting", "Scripts", "Scope");
+    }
+    
+    private List<List<SuggestionDTO>> suggestions() {
+        return PREFIXES.stream().map(prefix -> suggester.suggest(prefix, 10)).toList();
+    }
+    
+    private List<List<SuggestionDTO>> rebuilt() {
+        TitleSuggester fresh = new TitleSuggester(loader, enrollmentRepository, 3, 0);
+        fresh.onStartup();
+        return PREFIXES.stream().map(prefix -> fresh.suggest(prefix, 10)).toList();
+    }
+    
+    private static CourseDocument course(String id, String title, TopicDocument... topics) {
+        return new CourseDocument(id, title, title + " description", List.of(topics));
+    }
+    
+    private static TopicDocument topic(String title, SubtopicDocument... subtopics) {
+        return new TopicDocument(title, List.of(subtopics));
+    }
+    
+    private static SubtopicDocument subtopic(String id, String title) {
+        return new SubtopicDocument(id, title, title + " content");
+    }
+}
@@ -0,0 +1,143 @@
+package com.courseplatform.service;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.entity.User;
+import com.courseplatform.exception.ConflictException;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races many identical requests against each other on H2, where the atomic
+ * insert is a MERGE that can lose to a concurrent insert of the same key.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:concurrent-insert")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConcurrentInsertTest {
+    
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private EnrollmentService enrollmentService;
+    
+    @Autowired
+    private ProgressService progressService;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = Course.builder().id("race-101").title("Racing").build();
+            Topic topic = Topic.builder().topicId("start").title("Start").build();
+            topic.addSubtopic(Subtopic.builder().subtopicId("race-1").title("Go").content("Go").build());
+            course.addTopic(topic);
+            courseRepository.save(course);
+            
+            userRepository.save(User.builder().email("enroller@example.com").password("x").build());
+            userRepository.save(User.builder().email("learner@example.com").password("x").build());
+        });
+        enrollmentService.enrollUser("learner@example.com", "race-101");
+    }
+    
+    @Test
+    void parallelEnrollmentsInsertOneRowAndConflictOtherwise() throws Exception {
+        List<Outcome<Long>> outcomes = race(() -> enrollmentService.enrollUser("enroller@example.com", "race-101")
+                .getEnrollmentId());
+        
+        assertThat(outcomes).filteredOn(outcome -> outcome.value != null).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome.value == null)
+                .allSatisfy(outcome -> assertThat(outcome.failure).isInstanceOf(ConflictException.class));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollments e JOIN users u ON u.id = e.user_id WHERE u.email = ?",
+                Long.class, "enroller@example.com")).isEqualTo(1);
+    }
+    
+    @Test
+    void parallelCompletionsInsertOneRowAndAllReportItsTime() throws Exception {
+        List<Outcome<LocalDateTime>> outcomes = race(() -> progressService
+                .markSubtopicComplete("learner@example.com", "race-1").getCompletedAt());
+        
+        Set<LocalDateTime> times = new HashSet<>();
+        for (Outcome<LocalDateTime> outcome : outcomes) {
+            assertThat(outcome.failure).isNull();
+            times.add(outcome.value);
+        }
+        assertThat(times).hasSize(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subtopic_progress p JOIN users u ON u.id = p.user_id WHERE u.email = ?",
+                Long.class, "learner@example.com")).isEqualTo(1);
+    }
+    
+    // Starts every call at once and collects what each returned or threw
+    private static <T> List<Outcome<T>> race(Callable<T> call) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome<T>>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return new Outcome<>(call.call(), null);
+                    } catch (Exception e) {
+                        return new Outcome<T>(null, e);
+                    }
+                }));
+            }
+            start.countDown();
+            
+            List<Outcome<T>> outcomes = new ArrayList<>();
+            for (Future<Outcome<T>> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private static final class Outcome<T> {
+        private final T value;
+        private final Exception failure;
+        
+        Outcome(T value, Exception failure) {
+            this.value = value;
+            this.failure = failure;
+        }
+    }
+}